@@ -0,0 +1,73 @@
+package xyz.jphil.win11_oneocr.xhtml_controls_js.bench;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Minimal in-memory element tree - tag, attributes, text and children.
+ * Enough DOM to stand in for the browser document when running the core on the JVM.
+ */
+public final class InMemoryElement {
+
+    private final String tagName;
+    private final Map<String, String> attributes = new LinkedHashMap<>(8);
+    private final List<InMemoryElement> children = new ArrayList<>();
+    private String text;
+
+    public InMemoryElement(String tagName) {
+        this.tagName = tagName;
+    }
+
+    public String getTagName() {
+        return tagName;
+    }
+
+    public String getAttribute(String name) {
+        return attributes.get(name);
+    }
+
+    /** Attributes in insertion order - keeps serialized output byte-for-byte stable. */
+    public Map<String, String> getAttributes() {
+        return attributes;
+    }
+
+    /** Own text only, without descendants. */
+    public String getOwnText() {
+        return text;
+    }
+
+    public InMemoryElement setAttribute(String name, String value) {
+        attributes.put(name, value);
+        return this;
+    }
+
+    public InMemoryElement setTextContent(String text) {
+        this.text = text;
+        return this;
+    }
+
+    /**
+     * Own text followed by the text of all descendants, like Node.textContent.
+     */
+    public String getTextContent() {
+        if (children.isEmpty()) {
+            return text != null ? text : "";
+        }
+        var content = new StringBuilder(text != null ? text : "");
+        for (var child : children) {
+            content.append(child.getTextContent());
+        }
+        return content.toString();
+    }
+
+    public InMemoryElement appendChild(InMemoryElement child) {
+        children.add(child);
+        return child;
+    }
+
+    public List<InMemoryElement> getChildren() {
+        return children;
+    }
+}
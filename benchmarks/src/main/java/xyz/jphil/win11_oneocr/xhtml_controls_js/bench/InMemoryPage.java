@@ -0,0 +1,71 @@
+package xyz.jphil.win11_oneocr.xhtml_controls_js.bench;
+
+import xyz.jphil.win11_oneocr.xhtml_controls_js.core.OcrPageSource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * OcrPageSource over an in-memory page section.
+ * Segments and words are collected in one depth-first walk, bucketed the same way
+ * DocumentRegistry.PageElements buckets them in the browser.
+ */
+public final class InMemoryPage implements OcrPageSource {
+
+    private final InMemoryElement section;
+    private final List<InMemoryElement> segments = new ArrayList<>();
+    private final List<List<InMemoryElement>> wordsBySegment = new ArrayList<>();
+
+    public InMemoryPage(InMemoryElement section) {
+        this.section = section;
+        collect(section);
+    }
+
+    private void collect(InMemoryElement element) {
+        for (var child : element.getChildren()) {
+            switch (child.getTagName()) {
+                case "segment" -> {
+                    segments.add(child);
+                    wordsBySegment.add(new ArrayList<>());
+                }
+                case "w" -> {
+                    // Words outside any segment are not addressable by (line, word)
+                    if (!wordsBySegment.isEmpty()) {
+                        wordsBySegment.get(wordsBySegment.size() - 1).add(child);
+                    }
+                }
+                default -> { }
+            }
+            collect(child);
+        }
+    }
+
+    public InMemoryElement section() {
+        return section;
+    }
+
+    @Override
+    public String pageAttribute(String name) {
+        return section.getAttribute(name);
+    }
+
+    @Override
+    public int segmentCount() {
+        return segments.size();
+    }
+
+    @Override
+    public int wordCount(int lineIndex) {
+        return wordsBySegment.get(lineIndex).size();
+    }
+
+    @Override
+    public String wordAttribute(int lineIndex, int wordIndex, String name) {
+        return wordsBySegment.get(lineIndex).get(wordIndex).getAttribute(name);
+    }
+
+    @Override
+    public String wordText(int lineIndex, int wordIndex) {
+        return wordsBySegment.get(lineIndex).get(wordIndex).getTextContent();
+    }
+}
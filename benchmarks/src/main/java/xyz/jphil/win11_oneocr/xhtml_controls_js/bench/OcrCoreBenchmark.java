@@ -0,0 +1,102 @@
+package xyz.jphil.win11_oneocr.xhtml_controls_js.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import xyz.jphil.win11_oneocr.xhtml_controls_js.Config;
+import xyz.jphil.win11_oneocr.xhtml_controls_js.OCRData;
+import xyz.jphil.win11_oneocr.xhtml_controls_js.PageDataCodec;
+import xyz.jphil.win11_oneocr.xhtml_controls_js.core.OcrPageParser;
+import xyz.jphil.win11_oneocr.xhtml_controls_js.core.PageStatistics;
+import xyz.jphil.win11_oneocr.xhtml_controls_js.core.TextExtraction;
+import xyz.jphil.win11_oneocr.xhtml_controls_js.core.TextPlacement;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Whole-document cost of the core pipeline stages for a single page, 100 pages and 2,000 pages.
+ * Each benchmark covers every page of the document, so scores are per document.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class OcrCoreBenchmark {
+
+    @Param({"1", "100", "2000"})
+    public int pages;
+
+    private List<InMemoryPage> document;
+    private List<OCRData> parsed;
+    private List<String> encoded;
+    private final Config config = Config.DEFAULT;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        document = SyntheticDocument.pages(SyntheticDocument.Spec.ofPages(pages));
+        parsed = document.stream().map(OcrPageParser::parse).toList();
+        encoded = parsed.stream().map(PageDataCodec::encode).toList();
+    }
+
+    @Benchmark
+    public void parse(Blackhole blackhole) {
+        for (var page : document) {
+            blackhole.consume(OcrPageParser.parse(page));
+        }
+    }
+
+    @Benchmark
+    public void classifyAndStatistics(Blackhole blackhole) {
+        for (var data : parsed) {
+            blackhole.consume(PageStatistics.of(data, config));
+        }
+    }
+
+    @Benchmark
+    public void pageText(Blackhole blackhole) {
+        for (var data : parsed) {
+            blackhole.consume(TextExtraction.pageText(data.lines()));
+        }
+    }
+
+    @Benchmark
+    public void geometry(Blackhole blackhole) {
+        for (var data : parsed) {
+            for (var line : data.lines()) {
+                for (var word : line.words()) {
+                    word.boundingBox().ifPresent(bbox -> {
+                        blackhole.consume(TextPlacement.of(bbox));
+                        blackhole.consume(bbox.toPolygonPoints());
+                    });
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public void cacheEncode(Blackhole blackhole) {
+        for (var data : parsed) {
+            blackhole.consume(PageDataCodec.encode(data));
+        }
+    }
+
+    @Benchmark
+    public void cacheDecode(Blackhole blackhole) {
+        for (var value : encoded) {
+            blackhole.consume(PageDataCodec.decode(value));
+        }
+    }
+}
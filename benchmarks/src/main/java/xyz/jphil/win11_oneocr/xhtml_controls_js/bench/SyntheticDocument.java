@@ -0,0 +1,162 @@
+package xyz.jphil.win11_oneocr.xhtml_controls_js.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic synthetic OCR pages, shaped like win11OneOcrPage sections.
+ * Each page is derived from (seed, page index) alone, so any page can be rebuilt
+ * independently and two runs with the same spec produce identical documents.
+ */
+public final class SyntheticDocument {
+
+    private static final String[] VOCABULARY = {
+        "the", "of", "and", "to", "in", "a", "is", "that", "for", "it", "as", "was", "with",
+        "be", "by", "on", "not", "he", "this", "are", "or", "his", "from", "at", "which",
+        "document", "page", "section", "figure", "table", "result", "analysis", "1998",
+        "2024", "42", "3.14", "Windows", "OCR", "recognition", "confidence", "—", "(see", "p.)",
+        "&", "<i>", "\"quoted\""
+    };
+
+    /**
+     * Document shape.
+     * Word counts per line vary by up to a third around wordsPerLine. Word confidences are
+     * drawn from the high (0.8-1.0), medium (0.5-0.8) and low (0.2-0.5) bands of
+     * Config.DEFAULT in the given proportions; page angles are uniform in +-maxAngle degrees.
+     */
+    public record Spec(
+        int pages,
+        int linesPerPage,
+        int wordsPerLine,
+        double highFraction,
+        double mediumFraction,
+        double maxAngle,
+        int imageWidth,
+        int imageHeight,
+        long seed
+    ) {
+        public Spec {
+            if (pages < 0 || linesPerPage < 0 || wordsPerLine < 1) {
+                throw new IllegalArgumentException("pages and linesPerPage must be >= 0, wordsPerLine >= 1");
+            }
+            if (highFraction < 0 || mediumFraction < 0 || highFraction + mediumFraction > 1) {
+                throw new IllegalArgumentException("highFraction + mediumFraction must be within 0..1");
+            }
+            if (imageWidth <= 0 || imageHeight <= 0) {
+                throw new IllegalArgumentException("image dimensions must be positive");
+            }
+        }
+
+        public static Spec ofPages(int pages) {
+            return new Spec(pages, 32, 9, 0.85, 0.10, 1.5, 1700, 2200, 0x0CA1L);
+        }
+
+        public Spec withPages(int value) {
+            return new Spec(value, linesPerPage, wordsPerLine, highFraction, mediumFraction, maxAngle, imageWidth, imageHeight, seed);
+        }
+
+        public Spec withLayout(int lines, int words) {
+            return new Spec(pages, lines, words, highFraction, mediumFraction, maxAngle, imageWidth, imageHeight, seed);
+        }
+
+        public Spec withConfidence(double high, double medium) {
+            return new Spec(pages, linesPerPage, wordsPerLine, high, medium, maxAngle, imageWidth, imageHeight, seed);
+        }
+
+        public Spec withMaxAngle(double value) {
+            return new Spec(pages, linesPerPage, wordsPerLine, highFraction, mediumFraction, value, imageWidth, imageHeight, seed);
+        }
+
+        public Spec withImageSize(int width, int height) {
+            return new Spec(pages, linesPerPage, wordsPerLine, highFraction, mediumFraction, maxAngle, width, height, seed);
+        }
+
+        public Spec withSeed(long value) {
+            return new Spec(pages, linesPerPage, wordsPerLine, highFraction, mediumFraction, maxAngle, imageWidth, imageHeight, value);
+        }
+    }
+
+    private SyntheticDocument() {
+        // Utility class - prevent instantiation
+    }
+
+    public static List<InMemoryPage> pages(Spec spec) {
+        var pages = new ArrayList<InMemoryPage>(spec.pages());
+        for (int i = 0; i < spec.pages(); i++) {
+            pages.add(new InMemoryPage(section(spec, i)));
+        }
+        return pages;
+    }
+
+    /**
+     * Page section with an .ocrContent child holding segments and words.
+     * Section attributes (ocrWordsCount, averageConfidence, ...) describe the generated content.
+     */
+    public static InMemoryElement section(Spec spec, int pageIndex) {
+        var random = new SplittableRandom(spec.seed() * 31 + pageIndex);
+        var angle = spec.maxAngle() > 0 ? random.nextDouble(-spec.maxAngle(), spec.maxAngle()) : 0.0;
+        var section = new InMemoryElement("section")
+            .setAttribute("class", "win11OneOcrPage")
+            .setAttribute("pageNum", String.valueOf(pageIndex + 1))
+            .setAttribute("srcName", "page-" + (pageIndex + 1) + ".png")
+            .setAttribute("imgWidth", String.valueOf(spec.imageWidth()))
+            .setAttribute("imgHeight", String.valueOf(spec.imageHeight()))
+            .setAttribute("angle", format(angle));
+        var content = section.appendChild(new InMemoryElement("div").setAttribute("class", "ocrContent"));
+
+        var margin = spec.imageWidth() * 0.06;
+        var lineHeight = (spec.imageHeight() - 2 * margin) / Math.max(1, spec.linesPerPage());
+        var charWidth = (spec.imageWidth() - 2 * margin) / (spec.wordsPerLine() * 1.5 * 7);
+        var spread = spec.wordsPerLine() / 3;
+        var totalWords = 0;
+        var confidenceSum = 0.0;
+
+        for (int line = 0; line < spec.linesPerPage(); line++) {
+            var segment = content.appendChild(new InMemoryElement("segment"));
+            var words = Math.max(1, spec.wordsPerLine() + random.nextInt(-spread, spread + 1));
+            var top = margin + line * lineHeight;
+            var x = margin;
+            for (int w = 0; w < words; w++) {
+                var text = VOCABULARY[random.nextInt(VOCABULARY.length)];
+                var width = charWidth * text.length() + random.nextDouble(0, charWidth);
+                var height = lineHeight * 0.8;
+                var confidence = confidence(spec, random);
+                segment.appendChild(new InMemoryElement("w")
+                    .setAttribute("p", format(confidence))
+                    .setAttribute("i", String.valueOf(w))
+                    .setAttribute("b", boundingBox(x, top, width, height, angle))
+                    .setTextContent(text));
+                x += width + charWidth;
+                totalWords++;
+                confidenceSum += confidence;
+            }
+        }
+
+        section.setAttribute("ocrWordsCount", String.valueOf(totalWords));
+        section.setAttribute("ocrSegmentsCount", String.valueOf(spec.linesPerPage()));
+        section.setAttribute("averageConfidence", format(totalWords > 0 ? confidenceSum / totalWords : 0));
+        return section;
+    }
+
+    private static double confidence(Spec spec, SplittableRandom random) {
+        var band = random.nextDouble();
+        if (band < spec.highFraction()) return random.nextDouble(0.8, 1.0);
+        if (band < spec.highFraction() + spec.mediumFraction()) return random.nextDouble(0.5, 0.8);
+        return random.nextDouble(0.2, 0.5);
+    }
+
+    // Corners clockwise from top-left, skewed vertically by the page angle
+    private static String boundingBox(double x, double y, double width, double height, double angle) {
+        var skew = Math.tan(Math.toRadians(angle));
+        var y1 = y + x * skew;
+        var y2 = y + (x + width) * skew;
+        return format(x) + "," + format(y1) + "," + format(x + width) + "," + format(y2) + "," +
+               format(x + width) + "," + format(y2 + height) + "," + format(x) + "," + format(y1 + height);
+    }
+
+    // Fixed three-decimal output - stable across runs and locales
+    static String format(double value) {
+        return String.valueOf(Math.round(value * 1000.0) / 1000.0);
+    }
+}
@@ -0,0 +1,170 @@
+package xyz.jphil.win11_oneocr.xhtml_controls_js.bench;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * Writes a synthetic Win11 OneOCR semantic XHTML document.
+ * Output is streamed page by page - memory stays at one page regardless of page count.
+ * The document meta tags (pagesCount, totalWords, totalSegments, averageConfidence) precede the
+ * pages, so a cheap first pass regenerates each page once to total them up.
+ *
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar xyz.jphil.win11_oneocr.xhtml_controls_js.bench.SyntheticXhtmlWriter \
+ *      --pages 10000 --lines 40 --words 10 --high 0.8 --medium 0.15 --max-angle 2 \
+ *      --width 1700 --height 2200 --seed 7 --script XHtmlOcrControls.js large.xhtml
+ * </pre>
+ */
+public final class SyntheticXhtmlWriter {
+
+    // Fixed so output is byte-for-byte reproducible
+    private static final String OCR_DATE = "2025-01-01T00:00:00.000000Z";
+
+    private final SyntheticDocument.Spec spec;
+    private final String scriptSrc;
+
+    public SyntheticXhtmlWriter(SyntheticDocument.Spec spec, String scriptSrc) {
+        this.spec = spec;
+        this.scriptSrc = scriptSrc;
+    }
+
+    public void write(Writer out) throws IOException {
+        var totals = totals();
+
+        out.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        out.write("<!DOCTYPE html>\n");
+        out.write("<html xmlns=\"http://www.w3.org/1999/xhtml\">\n<head>\n");
+        out.write("<meta charset=\"UTF-8\"/>\n");
+        out.write("<title>Synthetic OCR document - " + spec.pages() + " pages</title>\n");
+        writeMeta(out, "pagesCount", String.valueOf(spec.pages()));
+        writeMeta(out, "totalWords", String.valueOf(totals.words()));
+        writeMeta(out, "totalSegments", String.valueOf(totals.segments()));
+        writeMeta(out, "averageConfidence", SyntheticDocument.format(totals.averageConfidence()));
+        writeMeta(out, "date", OCR_DATE);
+        writeMeta(out, "generator", "SyntheticXhtmlWriter seed=" + spec.seed());
+        out.write("</head>\n<body>\n");
+
+        for (int i = 0; i < spec.pages(); i++) {
+            writeElement(out, SyntheticDocument.section(spec, i));
+            out.write('\n');
+        }
+
+        if (scriptSrc != null && !scriptSrc.isEmpty()) {
+            out.write("<script src=\"" + escape(scriptSrc) + "\"></script>\n");
+            out.write("<script>XHtmlOcrControls__main();</script>\n");
+        }
+        out.write("</body>\n</html>\n");
+        out.flush();
+    }
+
+    private record Totals(long words, long segments, double averageConfidence) {}
+
+    private Totals totals() {
+        long words = 0, segments = 0;
+        var confidenceSum = 0.0;
+        for (int i = 0; i < spec.pages(); i++) {
+            var section = SyntheticDocument.section(spec, i);
+            var pageWords = Long.parseLong(section.getAttribute("ocrWordsCount"));
+            words += pageWords;
+            segments += Long.parseLong(section.getAttribute("ocrSegmentsCount"));
+            confidenceSum += pageWords * Double.parseDouble(section.getAttribute("averageConfidence"));
+        }
+        return new Totals(words, segments, words > 0 ? confidenceSum / words : 0);
+    }
+
+    private static void writeMeta(Writer out, String name, String content) throws IOException {
+        out.write("<meta name=\"" + name + "\" content=\"" + escape(content) + "\"/>\n");
+    }
+
+    // Words inside a segment are space separated so the raw text reads naturally
+    private static void writeElement(Writer out, InMemoryElement element) throws IOException {
+        out.write('<');
+        out.write(element.getTagName());
+        for (Map.Entry<String, String> attribute : element.getAttributes().entrySet()) {
+            out.write(' ');
+            out.write(attribute.getKey());
+            out.write("=\"");
+            out.write(escape(attribute.getValue()));
+            out.write('"');
+        }
+        out.write('>');
+        if (element.getOwnText() != null) {
+            out.write(escape(element.getOwnText()));
+        }
+        var inline = "segment".equals(element.getTagName());
+        var children = element.getChildren();
+        for (int i = 0; i < children.size(); i++) {
+            if (!inline) out.write('\n');
+            else if (i > 0) out.write(' ');
+            writeElement(out, children.get(i));
+        }
+        if (!inline && !children.isEmpty()) out.write('\n');
+        out.write("</");
+        out.write(element.getTagName());
+        out.write('>');
+    }
+
+    private static String escape(String value) {
+        var escaped = new StringBuilder(value.length() + 8);
+        for (int i = 0; i < value.length(); i++) {
+            var c = value.charAt(i);
+            switch (c) {
+                case '&' -> escaped.append("&amp;");
+                case '<' -> escaped.append("&lt;");
+                case '>' -> escaped.append("&gt;");
+                case '"' -> escaped.append("&quot;");
+                default -> escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+
+    public static void main(String[] args) throws IOException {
+        var spec = SyntheticDocument.Spec.ofPages(100);
+        String script = "XHtmlOcrControls.js";
+        String output = "-";
+
+        for (int i = 0; i < args.length; i++) {
+            var arg = args[i];
+            if (!arg.startsWith("--")) {
+                output = arg;
+                continue;
+            }
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value for " + arg);
+            }
+            var value = args[++i];
+            spec = switch (arg) {
+                case "--pages" -> spec.withPages(Integer.parseInt(value));
+                case "--lines" -> spec.withLayout(Integer.parseInt(value), spec.wordsPerLine());
+                case "--words" -> spec.withLayout(spec.linesPerPage(), Integer.parseInt(value));
+                case "--high" -> spec.withConfidence(Double.parseDouble(value), spec.mediumFraction());
+                case "--medium" -> spec.withConfidence(spec.highFraction(), Double.parseDouble(value));
+                case "--max-angle" -> spec.withMaxAngle(Double.parseDouble(value));
+                case "--width" -> spec.withImageSize(Integer.parseInt(value), spec.imageHeight());
+                case "--height" -> spec.withImageSize(spec.imageWidth(), Integer.parseInt(value));
+                case "--seed" -> spec.withSeed(Long.parseLong(value));
+                case "--script" -> {
+                    script = value;
+                    yield spec;
+                }
+                default -> throw new IllegalArgumentException("Unknown option " + arg);
+            };
+        }
+
+        var writer = new SyntheticXhtmlWriter(spec, script);
+        if ("-".equals(output)) {
+            writer.write(new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), 1 << 16));
+        } else {
+            try (var out = Files.newBufferedWriter(Path.of(output), StandardCharsets.UTF_8)) {
+                writer.write(out);
+            }
+        }
+    }
+}
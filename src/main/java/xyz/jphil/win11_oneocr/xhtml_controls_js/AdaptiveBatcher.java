@@ -0,0 +1,112 @@
+package xyz.jphil.win11_oneocr.xhtml_controls_js;
+
+import xyz.jphil.win11_oneocr.xhtml_controls_js.utilities.Log;
+import xyz.jphil.win11_oneocr.xhtml_controls_js.utilities.LongTaskWatchdog;
+import xyz.jphil.win11_oneocr.xhtml_controls_js.utilities.MutationQueue;
+import xyz.jphil.win11_oneocr.xhtml_controls_js.utilities.PerformanceMetrics;
+import xyz.jphil.win11_oneocr.xhtml_controls_js.utilities.Scheduler;
+
+import java.util.function.BooleanSupplier;
+import java.util.function.IntConsumer;
+
+/**
+ * Runs per-page work in batches sized to fit a frame budget.
+ * Every batch is timed; a smoothed per-item cost sets the next batch size, growth is
+ * capped at 2x per batch, and a long task reported since the previous batch halves it.
+ * One instance per kind of pass, so the learned cost carries over to the next run.
+ * The chosen sizes are published as the "batchSize.NAME" counter (latest) and samples.
+ */
+public class AdaptiveBatcher {
+
+    // Leaves headroom in a 60 Hz frame for style, layout and paint
+    public static final double FRAME_BUDGET_MS = 12.0;
+
+    private static final int MIN_BATCH = 1;
+    private static final int MAX_BATCH = 200;
+    private static final int INITIAL_BATCH = 8;
+    private static final double SMOOTHING = 0.5;
+
+    private final String name;
+    private final String metricName;
+    private final double budgetMs;
+    private int batchSize = INITIAL_BATCH;
+    private double costPerItemMs = -1;
+    private int longTasksSeen = LongTaskWatchdog.count();
+
+    public AdaptiveBatcher(String name) {
+        this(name, FRAME_BUDGET_MS);
+    }
+
+    public AdaptiveBatcher(String name, double budgetMs) {
+        this.name = name;
+        this.metricName = "batchSize." + name;
+        this.budgetMs = budgetMs;
+    }
+
+    public int batchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Process items 0..total-1, yielding to the browser between batches.
+     * Stops without calling onComplete once cancelled reports true.
+     *
+     * @param step       work for one item
+     * @param cancelled  checked before each batch
+     * @param progress   called after each batch with the number of items done
+     * @param onComplete called once every item was processed, may be null
+     */
+    public void run(int total, IntConsumer step, BooleanSupplier cancelled, IntConsumer progress, Runnable onComplete) {
+        runBatch(0, total, step, cancelled, progress, onComplete);
+    }
+
+    private void runBatch(int startIndex, int total, IntConsumer step, BooleanSupplier cancelled,
+                          IntConsumer progress, Runnable onComplete) {
+        if (cancelled.getAsBoolean()) {
+            if (Log.DEBUG_ENABLED) debug(name + " pass cancelled at item " + startIndex);
+            return;
+        }
+
+        var endIndex = Math.min(startIndex + batchSize, total);
+        var batchStart = PerformanceMetrics.now();
+        for (int i = startIndex; i < endIndex; i++) {
+            step.accept(i);
+        }
+        // One write phase per batch, timed with the batch
+        MutationQueue.flush();
+        adapt(endIndex - startIndex, PerformanceMetrics.now() - batchStart);
+        progress.accept(endIndex);
+
+        if (endIndex < total) {
+            Scheduler.after(1, () -> runBatch(endIndex, total, step, cancelled, progress, onComplete));
+        } else if (onComplete != null) {
+            onComplete.run();
+        }
+    }
+
+    private void adapt(int items, double elapsedMs) {
+        if (items <= 0) return;
+        var itemCost = Math.max(elapsedMs / items, 0.01);
+        costPerItemMs = costPerItemMs < 0 ? itemCost : SMOOTHING * itemCost + (1 - SMOOTHING) * costPerItemMs;
+
+        var target = (int) Math.floor(budgetMs / costPerItemMs);
+        var next = Math.min(target, batchSize * 2);
+
+        var longTasks = LongTaskWatchdog.count();
+        if (longTasks > longTasksSeen) {
+            next = Math.min(next, batchSize / 2);
+            if (Log.DEBUG_ENABLED) debug(name + ": " + (longTasks - longTasksSeen) + " long task(s) observed, halving batch");
+        }
+        longTasksSeen = longTasks;
+
+        batchSize = Math.max(MIN_BATCH, Math.min(MAX_BATCH, next));
+        PerformanceMetrics.set(metricName, batchSize);
+        PerformanceMetrics.sample(metricName, batchSize);
+        if (Log.TRACE_ENABLED) Log.trace("AdaptiveBatcher", name + ": " + items + " items in " + elapsedMs + " ms, next batch " + batchSize);
+    }
+
+    // Debug helper
+    private static void debug(String message) {
+        Log.debug("AdaptiveBatcher", message);
+    }
+}
@@ -1,9 +1,21 @@
 package xyz.jphil.win11_oneocr.xhtml_controls_js;
 
+/**
+ * @param detachedPagingMinPages opt-in page count from which only a window of pages stays in the live DOM
+ *                               (0 = off unless the page URL has "ocr-paging")
+ * @param memoryBudgetBytes estimated viewer memory above which far pages lose their SVG sections (0 = unbounded)
+ * @param materializedPagesLimit pages whose lines and words stay materialized after initialization
+ */
 public record Config(
-    ConfidenceThresholds confidenceThresholds
+    ConfidenceThresholds confidenceThresholds,
+    int detachedPagingMinPages,
+    double memoryBudgetBytes,
+    int materializedPagesLimit
 ) {
     public static final Config DEFAULT = new Config(
-        new ConfidenceThresholds(0.8, 0.5)
+        new ConfidenceThresholds(0.8, 0.5),
+        0,
+        256 * 1024 * 1024,
+        64
     );
 }
\ No newline at end of file
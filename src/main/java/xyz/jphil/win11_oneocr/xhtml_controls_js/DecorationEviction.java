@@ -0,0 +1,159 @@
+package xyz.jphil.win11_oneocr.xhtml_controls_js;
+
+import org.teavm.jso.JSBody;
+import org.teavm.jso.JSFunctor;
+import org.teavm.jso.JSObject;
+import org.teavm.jso.dom.html.HTMLElement;
+
+import xyz.jphil.win11_oneocr.xhtml_controls_js.utilities.Log;
+import xyz.jphil.win11_oneocr.xhtml_controls_js.utilities.MemoryAccounting;
+import xyz.jphil.win11_oneocr.xhtml_controls_js.utilities.MutationQueue;
+import xyz.jphil.win11_oneocr.xhtml_controls_js.utilities.PerformanceMetrics;
+import xyz.jphil.win11_oneocr.xhtml_controls_js.utilities.Scheduler;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Keeps the estimated memory of the viewer under the MemoryAccounting budget by tearing down
+ * the SVG sections (SVG layers and the background image) of pages far from the viewport.
+ * The page data handle stays, so a section is rebuilt from it as soon as its page comes within
+ * a viewport of being visible again. Evicts farthest pages first, down to 80% of the budget,
+ * so one pass buys headroom instead of evicting a page per allocation.
+ */
+public class DecorationEviction {
+
+    public static final String EVICTIONS = "decorationEvictions";
+    public static final String REBUILDS = "decorationRebuilds";
+
+    private static final String NEAR_VIEWPORT_MARGIN = "100% 0px 100% 0px";
+    private static final double TARGET_SHARE = 0.8;
+
+    private final DocumentRegistry registry;
+    private final Consumer<DocumentRegistry.PageElements> evict;
+    private final Consumer<DocumentRegistry.PageElements> rebuild;
+
+    private final Set<Integer> nearPages = new HashSet<>();
+    private final Set<Integer> evictedPages = new HashSet<>();
+    private final Scheduler.Task evictTask = new Scheduler.Task(this::evictIfOverBudget);
+    private JSObject pageObserver;
+
+    /**
+     * @param evict   tears down a page's SVG section and its accounting
+     * @param rebuild recreates it from the page data, in the current display state
+     */
+    public DecorationEviction(DocumentRegistry registry,
+                              Consumer<DocumentRegistry.PageElements> evict,
+                              Consumer<DocumentRegistry.PageElements> rebuild) {
+        this.registry = registry;
+        this.evict = evict;
+        this.rebuild = rebuild;
+    }
+
+    /**
+     * Start tracking pages near the viewport and react to budget crossings.
+     */
+    public void start() {
+        if (pageObserver != null) return;
+        pageObserver = createPageObserver(NEAR_VIEWPORT_MARGIN, DetachedPaging.INDEX_ATTRIBUTE, this::onPageVisibilityChanged);
+        if (pageObserver == null) {
+            Log.warn("DecorationEviction", "IntersectionObserver unavailable - decorations are never evicted");
+            return;
+        }
+        for (var page : registry.pages()) {
+            var section = page.section();
+            if (section.getAttribute(DetachedPaging.INDEX_ATTRIBUTE) == null) {
+                section.setAttribute(DetachedPaging.INDEX_ATTRIBUTE, String.valueOf(page.index()));
+            }
+            observe(pageObserver, section);
+        }
+        // The observer's first report of the far pages checks the budget too
+        MemoryAccounting.addOverBudgetListener(evictTask::nextFrame);
+    }
+
+    private void onPageVisibilityChanged(int pageIndex, boolean nearViewport) {
+        if (!nearViewport) {
+            nearPages.remove(pageIndex);
+            if (MemoryAccounting.budget() > 0 && MemoryAccounting.totalBytes() > MemoryAccounting.budget()) {
+                evictTask.nextFrame();
+            }
+            return;
+        }
+        nearPages.add(pageIndex);
+        if (evictedPages.remove(pageIndex)) {
+            var pages = registry.pages();
+            if (pageIndex < pages.size()) {
+                rebuild.accept(pages.get(pageIndex));
+                PerformanceMetrics.count(REBUILDS);
+                if (Log.TRACE_ENABLED) Log.trace("DecorationEviction", "Rebuilt page index " + pageIndex);
+            }
+        }
+    }
+
+    private void evictIfOverBudget() {
+        var budget = MemoryAccounting.budget();
+        if (budget <= 0 || MemoryAccounting.totalBytes() <= budget) return;
+
+        var nearMin = Integer.MAX_VALUE;
+        var nearMax = -1;
+        for (var index : nearPages) {
+            nearMin = Math.min(nearMin, index);
+            nearMax = Math.max(nearMax, index);
+        }
+        var candidates = new ArrayList<DocumentRegistry.PageElements>();
+        for (var page : registry.pages()) {
+            if (page.svgContainer().isPresent() && !nearPages.contains(page.index())) {
+                candidates.add(page);
+            }
+        }
+        final int low = nearMin;
+        final int high = nearMax;
+        candidates.sort(Comparator.comparingInt((DocumentRegistry.PageElements page) -> distance(page.index(), low, high)).reversed());
+
+        var target = budget * TARGET_SHARE;
+        var evicted = 0;
+        for (var page : candidates) {
+            if (MemoryAccounting.totalBytes() <= target) break;
+            evict.accept(page);
+            evictedPages.add(page.index());
+            evicted++;
+        }
+        MutationQueue.flush();
+        PerformanceMetrics.add(EVICTIONS, evicted);
+        if (Log.DEBUG_ENABLED) debug("Evicted " + evicted + " SVG sections, " + evictedPages.size() + " evicted in total");
+    }
+
+    // Pages between the near ones count as near; no near page at all measures from the top
+    private static int distance(int index, int nearMin, int nearMax) {
+        if (nearMax < 0) return index;
+        if (index < nearMin) return nearMin - index;
+        return Math.max(index - nearMax, 0);
+    }
+
+    @JSFunctor
+    interface PageVisibilityCallback extends JSObject {
+        void changed(int pageIndex, boolean nearViewport);
+    }
+
+    @JSBody(params = {"margin", "attribute", "callback"}, script = """
+        if (typeof IntersectionObserver === 'undefined') return null;
+        return new IntersectionObserver(function(entries) {
+            for (var i = 0; i < entries.length; i++) {
+                var index = parseInt(entries[i].target.getAttribute(attribute), 10);
+                if (!isNaN(index)) callback(index, entries[i].isIntersecting);
+            }
+        }, {rootMargin: margin});
+        """)
+    private static native JSObject createPageObserver(String margin, String attribute, PageVisibilityCallback callback);
+
+    @JSBody(params = {"observer", "element"}, script = "observer.observe(element);")
+    private static native void observe(JSObject observer, HTMLElement element);
+
+    // Debug helper
+    private static void debug(String message) {
+        Log.debug("DecorationEviction", message);
+    }
+}
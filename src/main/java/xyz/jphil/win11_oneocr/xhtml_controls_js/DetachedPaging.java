@@ -0,0 +1,226 @@
+package xyz.jphil.win11_oneocr.xhtml_controls_js;
+
+import org.teavm.jso.JSBody;
+import org.teavm.jso.JSFunctor;
+import org.teavm.jso.JSObject;
+import org.teavm.jso.browser.Window;
+import org.teavm.jso.dom.html.HTMLElement;
+
+import xyz.jphil.win11_oneocr.xhtml_controls_js.utilities.Log;
+import xyz.jphil.win11_oneocr.xhtml_controls_js.utilities.PerformanceMetrics;
+import xyz.jphil.win11_oneocr.xhtml_controls_js.utilities.Scheduler;
+
+/**
+ * Keeps only a sliding window of page sections in the live DOM.
+ * Pages far from the viewport are swapped for a spacer of their measured height, so the
+ * scroll height does not change; the section itself is kept detached, subtree intact -
+ * decorations, SVG section, listeners and display state survive the round trip untouched.
+ * Two IntersectionObservers drive the window with hysteresis: spacers entering the attach
+ * margin are swapped back before they scroll into view, sections leaving the wider detach
+ * margin are swapped out in one read-then-write pass per frame.
+ */
+public class DetachedPaging {
+
+    public static final String ATTACHED_PAGES = "attachedPages";
+    public static final String ATTACHES = "pageAttaches";
+    public static final String DETACHES = "pageDetaches";
+
+    static final String SPACER_CLASS = "ocr-page-spacer";
+    static final String INDEX_ATTRIBUTE = "data-ocr-page-index";
+    // Attach within 1.5 viewports, detach beyond 3 - a page never flips at one scroll position
+    private static final String ATTACH_MARGIN = "150% 0px 150% 0px";
+    private static final String DETACH_MARGIN = "300% 0px 300% 0px";
+
+    private final DocumentRegistry registry;
+    private final Runnable onLayoutChanged;
+
+    private HTMLElement[] sections = new HTMLElement[0];
+    private HTMLElement[] spacers = new HTMLElement[0];
+    private boolean[] detached = new boolean[0];
+    private int attachedCount = 0;
+    private String spacerMargin = "";
+    private JSObject attachObserver;
+    private JSObject detachObserver;
+
+    private final IntArrayList pendingDetach = new IntArrayList();
+    private final Scheduler.Task detachTask = new Scheduler.Task(this::detachPending);
+
+    /**
+     * @param onLayoutChanged runs after pages were swapped back in (cached geometry is stale)
+     */
+    public DetachedPaging(DocumentRegistry registry, Runnable onLayoutChanged) {
+        this.registry = registry;
+        this.onLayoutChanged = onLayoutChanged;
+    }
+
+    /**
+     * Start managing the registry's pages. Returns false where IntersectionObserver is unavailable.
+     */
+    public boolean start() {
+        if (attachObserver != null) return true;
+        var pages = registry.pages();
+        attachObserver = createPageObserver(ATTACH_MARGIN, INDEX_ATTRIBUTE, (index, intersecting) -> {
+            if (intersecting) attach(index);
+        });
+        if (attachObserver == null) {
+            Log.warn("DetachedPaging", "IntersectionObserver unavailable - paging stays off");
+            return false;
+        }
+        detachObserver = createPageObserver(DETACH_MARGIN, INDEX_ATTRIBUTE, (index, intersecting) -> {
+            if (!intersecting) {
+                pendingDetach.add(index);
+                detachTask.nextFrame();
+            }
+        });
+
+        sections = new HTMLElement[pages.size()];
+        spacers = new HTMLElement[pages.size()];
+        detached = new boolean[pages.size()];
+        attachedCount = pages.size();
+        if (!pages.isEmpty()) {
+            spacerMargin = computedMargin(pages.get(0).section());
+        }
+        for (var page : pages) {
+            var section = page.section();
+            sections[page.index()] = section;
+            section.setAttribute(INDEX_ATTRIBUTE, String.valueOf(page.index()));
+            observe(detachObserver, section);
+        }
+        registry.setDetachedPages(this::detachedSection);
+        if (Log.DEBUG_ENABLED) debug("Paging " + pages.size() + " pages");
+        return true;
+    }
+
+    /**
+     * Swap a page back in right away - for navigation that scrolls to it.
+     */
+    public void ensureAttached(int pageIndex) {
+        attach(pageIndex);
+    }
+
+    public boolean isDetached(int pageIndex) {
+        return pageIndex >= 0 && pageIndex < detached.length && detached[pageIndex];
+    }
+
+    /**
+     * The detached section standing behind a spacer, or null when the page is attached.
+     */
+    private HTMLElement detachedSection(int pageIndex) {
+        return isDetached(pageIndex) ? sections[pageIndex] : null;
+    }
+
+    private void attach(int index) {
+        if (!isDetached(index)) return;
+        var spacer = spacers[index];
+        var parent = spacer.getParentNode();
+        if (parent == null) return;
+
+        unobserve(attachObserver, spacer);
+        registry.expectViewerMove(sections[index]);
+        parent.replaceChild(sections[index], spacer);
+        detached[index] = false;
+        attachedCount++;
+        observe(detachObserver, sections[index]);
+
+        PerformanceMetrics.count(ATTACHES);
+        PerformanceMetrics.set(ATTACHED_PAGES, attachedCount);
+        onLayoutChanged.run();
+        if (Log.TRACE_ENABLED) Log.trace("DetachedPaging", "Attached page index " + index);
+    }
+
+    private void detachPending() {
+        if (pendingDetach.isEmpty()) return;
+        var count = pendingDetach.size();
+        var indices = new int[count];
+        var heights = new double[count];
+
+        // Read phase - every height before the first swap
+        for (int i = 0; i < count; i++) {
+            var index = pendingDetach.get(i);
+            indices[i] = index;
+            heights[i] = index >= 0 && index < sections.length && !detached[index]
+                ? sections[index].getBoundingClientRect().getHeight()
+                : -1;
+        }
+        pendingDetach.clear();
+
+        // Write phase
+        var swapped = 0;
+        for (int i = 0; i < count; i++) {
+            var index = indices[i];
+            if (heights[i] < 0 || detached[index]) continue;
+            var section = sections[index];
+            var parent = section.getParentNode();
+            if (parent == null) continue;
+
+            var spacer = spacerFor(index);
+            spacer.getStyle().setProperty("height", heights[i] + "px");
+            unobserve(detachObserver, section);
+            registry.expectViewerMove(section);
+            parent.replaceChild(spacer, section);
+            detached[index] = true;
+            attachedCount--;
+            observe(attachObserver, spacer);
+            swapped++;
+        }
+        if (swapped == 0) return;
+
+        PerformanceMetrics.add(DETACHES, swapped);
+        PerformanceMetrics.set(ATTACHED_PAGES, attachedCount);
+        if (Log.DEBUG_ENABLED) debug("Detached " + swapped + " pages, " + attachedCount + " attached");
+    }
+
+    private HTMLElement spacerFor(int index) {
+        var spacer = spacers[index];
+        if (spacer == null) {
+            spacer = (HTMLElement) Window.current().getDocument().createElement("div");
+            spacer.setClassName(SPACER_CLASS);
+            spacer.setAttribute(INDEX_ATTRIBUTE, String.valueOf(index));
+            if (!spacerMargin.isEmpty()) {
+                spacer.getStyle().setProperty("margin", spacerMargin);
+            }
+            spacers[index] = spacer;
+        }
+        return spacer;
+    }
+
+    /**
+     * Paging applies from minPages pages (0 = never), or at any size with "ocr-paging" in the page URL query.
+     */
+    static boolean shouldPage(int pageCount, int minPages) {
+        return (minPages > 0 && pageCount >= minPages) || isRequestedByUrl();
+    }
+
+    @JSFunctor
+    interface PageIntersectionCallback extends JSObject {
+        void changed(int pageIndex, boolean intersecting);
+    }
+
+    @JSBody(params = {"margin", "attribute", "callback"}, script = """
+        if (typeof IntersectionObserver === 'undefined') return null;
+        return new IntersectionObserver(function(entries) {
+            for (var i = 0; i < entries.length; i++) {
+                var index = parseInt(entries[i].target.getAttribute(attribute), 10);
+                if (!isNaN(index)) callback(index, entries[i].isIntersecting);
+            }
+        }, {rootMargin: margin});
+        """)
+    private static native JSObject createPageObserver(String margin, String attribute, PageIntersectionCallback callback);
+
+    @JSBody(params = {"observer", "element"}, script = "observer.observe(element);")
+    private static native void observe(JSObject observer, HTMLElement element);
+
+    @JSBody(params = {"observer", "element"}, script = "observer.unobserve(element);")
+    private static native void unobserve(JSObject observer, HTMLElement element);
+
+    @JSBody(params = {"element"}, script = "return getComputedStyle(element).margin || '';")
+    private static native String computedMargin(HTMLElement element);
+
+    @JSBody(script = "return typeof location !== 'undefined' && /[?&]ocr-paging\\b/.test(location.search);")
+    private static native boolean isRequestedByUrl();
+
+    // Debug helper
+    private static void debug(String message) {
+        Log.debug("DetachedPaging", message);
+    }
+}
@@ -0,0 +1,112 @@
+package xyz.jphil.win11_oneocr.xhtml_controls_js;
+
+import org.teavm.jso.JSBody;
+import org.teavm.jso.JSObject;
+import org.teavm.jso.dom.xml.Element;
+
+import xyz.jphil.win11_oneocr.xhtml_controls_js.utilities.Log;
+
+import java.util.Optional;
+
+/**
+ * Global (page, line, word) addressing for segment and word elements.
+ * Every segment gets a document-wide line id and every w a document-wide word id,
+ * held in two WeakMaps - element to id is one hash lookup, with no closure per element.
+ * Ids resolve back to page-relative positions through compact offset tables:
+ * pageLineStart (per page), linePage and lineWordStart (per line), wordLine (per word).
+ * Rebuilt lazily whenever the DocumentRegistry has been rebuilt.
+ */
+public class DocumentAddressing {
+
+    private final DocumentRegistry registry;
+    private int builtFromRegistryBuild = -1;
+
+    private JSObject lineIds;
+    private JSObject wordIds;
+
+    private IntArrayList pageLineStart = new IntArrayList();
+    private IntArrayList linePage = new IntArrayList();
+    private IntArrayList lineWordStart = new IntArrayList();
+    private IntArrayList wordLine = new IntArrayList();
+
+    public DocumentAddressing(DocumentRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Address of a segment (wordIndex = -1) or w element; empty for anything else.
+     */
+    public Optional<Address> addressOf(Element element) {
+        if (element == null) return Optional.empty();
+        ensureCurrent();
+
+        var wordId = lookup(wordIds, element);
+        if (wordId >= 0) {
+            var lineId = wordLine.get(wordId);
+            return Optional.of(address(lineId, wordId - lineWordStart.get(lineId)));
+        }
+        var lineId = lookup(lineIds, element);
+        return lineId >= 0 ? Optional.of(address(lineId, -1)) : Optional.empty();
+    }
+
+    private Address address(int lineId, int wordIndex) {
+        var pageIndex = linePage.get(lineId);
+        var page = registry.pages().get(pageIndex);
+        return new Address(pageIndex, page.displayNumber(), lineId - pageLineStart.get(pageIndex), wordIndex);
+    }
+
+    private void ensureCurrent() {
+        var pages = registry.pages(); // rebuilds the registry first if it was invalidated
+        if (builtFromRegistryBuild == registry.builds()) return;
+
+        lineIds = createIdMap();
+        wordIds = createIdMap();
+        pageLineStart = new IntArrayList(pages.size() + 1);
+        linePage = new IntArrayList();
+        lineWordStart = new IntArrayList();
+        wordLine = new IntArrayList();
+
+        for (var page : pages) {
+            pageLineStart.add(linePage.size());
+            for (int line = 0; line < page.segmentCount(); line++) {
+                var lineId = linePage.size();
+                linePage.add(page.index());
+                lineWordStart.add(wordLine.size());
+                assign(lineIds, page.segments().get(line), lineId);
+
+                var words = page.wordCount(line);
+                for (int word = 0; word < words; word++) {
+                    assign(wordIds, page.word(line, word).orElseThrow(), wordLine.size());
+                    wordLine.add(lineId);
+                }
+            }
+        }
+        pageLineStart.add(linePage.size());
+        builtFromRegistryBuild = registry.builds();
+        if (Log.DEBUG_ENABLED) debug("Addressed " + linePage.size() + " lines and " + wordLine.size() + " words on " + pages.size() + " pages");
+    }
+
+    /**
+     * Position of an element: 0-based page index in DOM order (its identity), the page number
+     * shown to the user, 0-based line and word (-1 when the element is a segment).
+     */
+    public record Address(int pageIndex, int displayNumber, int lineIndex, int wordIndex) {
+        public boolean isWord() {
+            return wordIndex >= 0;
+        }
+    }
+
+    @JSBody(script = "return new WeakMap();")
+    private static native JSObject createIdMap();
+
+    @JSBody(params = {"map", "element", "id"}, script = "map.set(element, id);")
+    private static native void assign(JSObject map, Element element, int id);
+
+    @JSBody(params = {"map", "element"}, script = "var id = map.get(element); return id === undefined ? -1 : id;")
+    private static native int lookup(JSObject map, Element element);
+
+    // Debug helper
+    private static void debug(String message) {
+        Log.debug("DocumentAddressing", message);
+    }
+}
@@ -0,0 +1,362 @@
+package xyz.jphil.win11_oneocr.xhtml_controls_js;
+
+import org.teavm.jso.JSBody;
+import org.teavm.jso.JSFunctor;
+import org.teavm.jso.JSObject;
+import org.teavm.jso.dom.html.HTMLDocument;
+import org.teavm.jso.dom.html.HTMLElement;
+import org.teavm.jso.dom.xml.Element;
+
+import xyz.jphil.win11_oneocr.xhtml_controls_js.core.OcrPageSource;
+import xyz.jphil.win11_oneocr.xhtml_controls_js.utilities.Log;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.IntFunction;
+
+import static xyz.jphil.win11_oneocr.xhtml_controls_js.utilities.AttributeParser.*;
+
+/**
+ * Element handles for the whole document, collected in one DOM traversal.
+ * Maps every page to its section, segments, words, .ocrContent and SVG container,
+ * and keeps the document meta tags. A single querySelectorAll over a combined selector
+ * returns everything in document order, so each element is bucketed under the page
+ * and segment seen last. The registry is rebuilt lazily - only after a MutationObserver
+ * reports pages, segments, words or meta tags being added or removed.
+ * Pages swapped out by DetachedPaging are found through their spacers and traversed detached.
+ */
+public class DocumentRegistry {
+
+    private static final String PAGE_SELECTOR = "section.win11OneOcrPage";
+    private static final String PAGE_CONTENT_SELECTOR = "segment, w, .ocrContent, .svg-content";
+    private static final String TRAVERSAL_SELECTOR = "meta[name], " +
+        PAGE_SELECTOR + ", " +
+        "." + DetachedPaging.SPACER_CLASS + ", " +
+        PAGE_SELECTOR + " segment, " +
+        PAGE_SELECTOR + " w, " +
+        PAGE_SELECTOR + " .ocrContent, " +
+        PAGE_SELECTOR + " .svg-content";
+    // Structural changes that invalidate the registry - decorations and controls never match
+    private static final String STRUCTURAL_SELECTOR = "meta, " + PAGE_SELECTOR + ", segment, w, .ocrContent";
+
+    private final HTMLDocument document;
+
+    private List<PageElements> pages = List.of();
+    private Map<String, Element> metaByName = Map.of();
+    private boolean valid = false;
+    private JSObject structureObserver;
+    // Sections the viewer itself is moving, counted per pending mutation record
+    private final JSObject viewerMoves = createMoveCounts();
+    private int builds = 0;
+    private IntFunction<HTMLElement> detachedPages = index -> null;
+    private final List<Runnable> invalidationListeners = new ArrayList<>();
+
+    public DocumentRegistry(HTMLDocument document) {
+        this.document = document;
+    }
+
+    /**
+     * All pages in DOM order.
+     */
+    public List<PageElements> pages() {
+        ensureBuilt();
+        return pages;
+    }
+
+    /**
+     * Page by 0-based DOM index - the one page identity used throughout the viewer.
+     */
+    public Optional<PageElements> page(int pageIndex) {
+        ensureBuilt();
+        return pageIndex >= 0 && pageIndex < pages.size() ? Optional.of(pages.get(pageIndex)) : Optional.empty();
+    }
+
+    /**
+     * Page whose section contains the element.
+     */
+    public Optional<PageElements> pageContaining(Element element) {
+        var section = closestPage(element, PAGE_SELECTOR);
+        if (section == null) return Optional.empty();
+        for (var page : pages()) {
+            if (page.section() == section) return Optional.of(page);
+        }
+        return Optional.empty();
+    }
+
+    public int pageCount() {
+        return pages().size();
+    }
+
+    /**
+     * Meta tag by name attribute.
+     */
+    public Optional<Element> meta(String name) {
+        ensureBuilt();
+        return Optional.ofNullable(metaByName.get(name));
+    }
+
+    public int metaInt(String name, int defaultValue) {
+        return meta(name).map(meta -> parseIntAttribute(meta, "content", defaultValue)).orElse(defaultValue);
+    }
+
+    public double metaDouble(String name, double defaultValue) {
+        return meta(name).map(meta -> parseDoubleAttribute(meta, "content", defaultValue)).orElse(defaultValue);
+    }
+
+    /**
+     * Drop all handles; the next access rebuilds.
+     */
+    public void invalidate() {
+        if (!valid) return;
+        if (Log.DEBUG_ENABLED) debug("Invalidated after structural mutation");
+        valid = false;
+        invalidationListeners.forEach(Runnable::run);
+    }
+
+    /**
+     * Runs when the registry is invalidated, before the rebuild - keep it to scheduling work.
+     */
+    public void addInvalidationListener(Runnable listener) {
+        invalidationListeners.add(listener);
+    }
+
+    public int builds() {
+        return builds;
+    }
+
+    /**
+     * Lookup for sections detached behind a spacer, by the spacer's page index.
+     */
+    void setDetachedPages(IntFunction<HTMLElement> detachedPages) {
+        this.detachedPages = detachedPages;
+    }
+
+    /**
+     * Announce that the viewer is about to insert or remove this section itself (a page swap,
+     * which keeps every handle valid) - the mutation record it causes does not invalidate.
+     * Records of any other node, including the document's own page changes, still do.
+     */
+    void expectViewerMove(HTMLElement section) {
+        if (structureObserver != null) {
+            countMove(viewerMoves, section);
+        }
+    }
+
+    // Display number: pageNum attribute, else 1-indexed DOM position
+    private static int displayNumberOf(HTMLElement page, int domIndex) {
+        var pageNumAttr = page.getAttribute("pageNum");
+        if (pageNumAttr != null) {
+            try {
+                return Integer.parseInt(pageNumAttr);
+            } catch (NumberFormatException e) {
+                // Fall through to DOM position
+            }
+        }
+        return domIndex + 1;
+    }
+
+    private void ensureBuilt() {
+        if (valid) return;
+        build();
+        if (structureObserver == null) {
+            structureObserver = observeStructure(document.getDocumentElement(), STRUCTURAL_SELECTOR, viewerMoves, this::invalidate);
+        }
+    }
+
+    private void build() {
+        var traversal = new Traversal();
+        var elements = document.querySelectorAll(TRAVERSAL_SELECTOR);
+        for (int i = 0; i < elements.getLength(); i++) {
+            var element = (HTMLElement) elements.get(i);
+            if (element.getClassList().contains(DetachedPaging.SPACER_CLASS)) {
+                var section = detachedPages.apply(parseIntAttribute(element, DetachedPaging.INDEX_ATTRIBUTE, -1));
+                if (section == null) continue;
+                traversal.visit(section);
+                var content = section.querySelectorAll(PAGE_CONTENT_SELECTOR);
+                for (int j = 0; j < content.getLength(); j++) {
+                    traversal.visit((HTMLElement) content.get(j));
+                }
+            } else {
+                traversal.visit(element);
+            }
+        }
+
+        pages = Collections.unmodifiableList(traversal.pages);
+        metaByName = traversal.meta;
+        valid = true;
+        builds++;
+        if (Log.DEBUG_ENABLED) debug("Built registry #" + builds + ": " + traversal.pages.size() + " pages, " + traversal.meta.size() +
+              " meta tags from " + elements.getLength() + " elements");
+    }
+
+    /**
+     * Buckets elements arriving in document order under the page and segment seen last.
+     */
+    private static final class Traversal {
+        final List<PageElements> pages = new ArrayList<>();
+        final Map<String, Element> meta = new HashMap<>();
+        PageElements current;
+
+        void visit(HTMLElement element) {
+            var classes = element.getClassList();
+            // Class checks first - .ocrContent may itself be a section or any other tag
+            if (classes.contains("win11OneOcrPage")) {
+                var index = pages.size();
+                current = new PageElements(index, displayNumberOf(element, index), element);
+                pages.add(current);
+            } else if (classes.contains("ocrContent")) {
+                if (current.ocrContent == null) current.ocrContent = element;
+            } else if (classes.contains("svg-content")) {
+                current.svgContainer = element;
+            } else {
+                switch (element.getTagName().toLowerCase()) {
+                    case "meta" -> meta.putIfAbsent(element.getAttribute("name"), element);
+                    case "segment" -> current.addSegment(element);
+                    case "w" -> current.addWord(element);
+                    default -> { }
+                }
+            }
+        }
+    }
+
+    /**
+     * Element handles of one page. Words are stored flat with a per-segment start offset,
+     * so (line, word) lookups are two array reads. Doubles as the browser OcrPageSource.
+     */
+    public static final class PageElements implements OcrPageSource {
+        private final int index;
+        private final int displayNumber;
+        private final HTMLElement section;
+        private HTMLElement ocrContent;
+        private HTMLElement svgContainer;
+        private final List<HTMLElement> segments = new ArrayList<>();
+        private final List<HTMLElement> words = new ArrayList<>();
+        private final IntArrayList segmentWordStart = new IntArrayList();
+
+        PageElements(int index, int displayNumber, HTMLElement section) {
+            this.index = index;
+            this.displayNumber = displayNumber;
+            this.section = section;
+        }
+
+        private void addSegment(HTMLElement segment) {
+            segments.add(segment);
+            segmentWordStart.add(words.size());
+        }
+
+        private void addWord(HTMLElement word) {
+            // Words outside any segment are not addressable by (line, word)
+            if (!segments.isEmpty()) {
+                words.add(word);
+            }
+        }
+
+        /** 0-based position in DOM order - the page's identity. */
+        public int index() { return index; }
+        /** pageNum attribute, else index + 1 - for display only, never as a key. */
+        public int displayNumber() { return displayNumber; }
+        public HTMLElement section() { return section; }
+        public Optional<HTMLElement> ocrContent() { return Optional.ofNullable(ocrContent); }
+        public Optional<HTMLElement> svgContainer() { return Optional.ofNullable(svgContainer); }
+        public List<HTMLElement> segments() { return segments; }
+        @Override
+        public int segmentCount() { return segments.size(); }
+
+        public Optional<HTMLElement> segment(int lineIndex) {
+            return lineIndex >= 0 && lineIndex < segments.size()
+                ? Optional.of(segments.get(lineIndex))
+                : Optional.empty();
+        }
+
+        @Override
+        public int wordCount(int lineIndex) {
+            if (lineIndex < 0 || lineIndex >= segments.size()) return 0;
+            var end = lineIndex + 1 < segments.size() ? segmentWordStart.get(lineIndex + 1) : words.size();
+            return end - segmentWordStart.get(lineIndex);
+        }
+
+        public Optional<HTMLElement> word(int lineIndex, int wordIndex) {
+            if (wordIndex < 0 || wordIndex >= wordCount(lineIndex)) return Optional.empty();
+            return Optional.of(wordAt(lineIndex, wordIndex));
+        }
+
+        @Override
+        public String pageAttribute(String name) {
+            return section.getAttribute(name);
+        }
+
+        @Override
+        public String wordAttribute(int lineIndex, int wordIndex, String name) {
+            return wordAt(lineIndex, wordIndex).getAttribute(name);
+        }
+
+        @Override
+        public String wordText(int lineIndex, int wordIndex) {
+            return wordAt(lineIndex, wordIndex).getTextContent();
+        }
+
+        // Unchecked - callers stay within segmentCount()/wordCount(line)
+        private HTMLElement wordAt(int lineIndex, int wordIndex) {
+            return words.get(segmentWordStart.get(lineIndex) + wordIndex);
+        }
+
+        /**
+         * Record the SVG container created for this page - viewer-inserted, so it does not invalidate.
+         */
+        public void attachSvgContainer(HTMLElement container) {
+            this.svgContainer = container;
+        }
+    }
+
+    @JSFunctor
+    interface InvalidationCallback extends JSObject {
+        void invalidate();
+    }
+
+    // Every node is checked, so each expected move is consumed by exactly the record it caused
+    @JSBody(params = {"root", "selector", "moves", "callback"}, script = """
+        if (typeof MutationObserver === 'undefined') return null;
+        var structural = function(nodes) {
+            var found = false;
+            for (var i = 0; i < nodes.length; i++) {
+                var node = nodes[i];
+                var expected = moves.get(node);
+                if (expected) {
+                    if (expected > 1) moves.set(node, expected - 1); else moves.delete(node);
+                } else if (!found && node.nodeType === 1 && (node.matches(selector) || node.querySelector(selector))) {
+                    found = true;
+                }
+            }
+            return found;
+        };
+        var observer = new MutationObserver(function(records) {
+            var invalidated = false;
+            for (var i = 0; i < records.length; i++) {
+                if (structural(records[i].addedNodes)) invalidated = true;
+                if (structural(records[i].removedNodes)) invalidated = true;
+            }
+            if (invalidated) callback();
+        });
+        observer.observe(root, {childList: true, subtree: true});
+        return observer;
+        """)
+    private static native JSObject observeStructure(Element root, String selector, JSObject moves, InvalidationCallback callback);
+
+    @JSBody(params = {"element", "selector"}, script = "return element && element.closest ? element.closest(selector) : null;")
+    private static native HTMLElement closestPage(Element element, String selector);
+
+    @JSBody(script = "return new Map();")
+    private static native JSObject createMoveCounts();
+
+    @JSBody(params = {"moves", "node"}, script = "moves.set(node, (moves.get(node) || 0) + 1);")
+    private static native void countMove(JSObject moves, HTMLElement node);
+
+    // Debug helper
+    private static void debug(String message) {
+        Log.debug("DocumentRegistry", message);
+    }
+}
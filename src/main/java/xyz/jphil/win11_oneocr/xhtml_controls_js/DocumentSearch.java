@@ -0,0 +1,186 @@
+package xyz.jphil.win11_oneocr.xhtml_controls_js;
+
+import org.teavm.jso.JSBody;
+import org.teavm.jso.browser.Performance;
+import org.teavm.jso.browser.Window;
+import org.teavm.jso.dom.events.KeyboardEvent;
+import org.teavm.jso.dom.html.HTMLDocument;
+import org.teavm.jso.dom.html.HTMLElement;
+import org.teavm.jso.dom.html.HTMLInputElement;
+import org.teavm.jso.dom.xml.Element;
+
+import xyz.jphil.win11_oneocr.xhtml_controls_js.utilities.Log;
+import xyz.jphil.win11_oneocr.xhtml_controls_js.utilities.MemoryAccounting;
+import xyz.jphil.win11_oneocr.xhtml_controls_js.utilities.PerformanceMetrics;
+import xyz.jphil.win11_oneocr.xhtml_controls_js.utilities.Scheduler;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static xyz.jphil.win11_oneocr.xhtml_controls_js.utilities.TextUtilities.*;
+import static xyz.jphil.win11_oneocr.xhtml_controls_js.utilities.UIElementFactory.*;
+
+/**
+ * In-viewer full-text search over all pages.
+ * Feeds the inverted SearchIndex as pages are processed and drives the search bar UI.
+ * Queries are coalesced into one animation frame, so typing never queues up stale searches.
+ * A query starting with "~" runs OCR-error-tolerant matching ranked by word confidence.
+ */
+public class DocumentSearch {
+
+    private static final int MAX_RESULTS = 50;
+    private static final String FUZZY_PREFIX = "~";
+    // Highlight cap - beyond this a query is too unspecific to be worth painting
+    private static final int MAX_HIGHLIGHTS = 20_000;
+
+    private final MultiPageManager pageManager;
+    private final HTMLDocument document;
+    private final SearchIndex index = new SearchIndex();
+    private final SearchHighlighter highlighter;
+
+    // Page data handles by page index, used for result snippets
+    private final Map<Integer, PageData> pagesByIndex = new HashMap<>();
+
+    private String pendingQuery = "";
+    private final Scheduler.Task searchTask = new Scheduler.Task(() -> runSearch(pendingQuery));
+    private List<SearchIndex.SearchHit> currentHits = List.of();
+
+    public DocumentSearch(MultiPageManager pageManager) {
+        this.pageManager = pageManager;
+        this.document = Window.current().getDocument();
+        this.highlighter = new SearchHighlighter(pageManager);
+    }
+
+    /**
+     * Index one processed page. Call in document order.
+     */
+    public void indexPage(int pageIndex, PageData pageData) {
+        pagesByIndex.put(pageIndex, pageData);
+        index.addPage(pageIndex, pageData.data());
+    }
+
+    public SearchIndex index() {
+        return index;
+    }
+
+    /**
+     * Bind search bar input handlers. Expects the bar from UIElementFactory.createSearchBar().
+     */
+    public void bind() {
+        var input = (HTMLInputElement) document.getElementById("ocr-search-input");
+        if (input == null) {
+            Log.warn("DocumentSearch", "Search input not found - search disabled");
+            return;
+        }
+
+        input.addEventListener("input", evt -> scheduleSearch(input.getValue()));
+        PerformanceMetrics.add(PerformanceMetrics.LISTENERS_ATTACHED, 2);
+        MemoryAccounting.listeners(MemoryAccounting.DOCUMENT, 2);
+        input.addEventListener("keydown", evt -> {
+            var key = ((KeyboardEvent) evt).getKey();
+            if ("Escape".equals(key)) {
+                input.setValue("");
+                scheduleSearch("");
+            } else if ("Enter".equals(key) && !currentHits.isEmpty()) {
+                jumpTo(currentHits.get(0));
+            }
+        });
+        if (Log.DEBUG_ENABLED) debug("Search bound (" + index.indexedWords() + " words indexed so far)");
+    }
+
+    /**
+     * Coalesce keystrokes - only the latest query runs, once per animation frame.
+     */
+    private void scheduleSearch(String query) {
+        pendingQuery = query;
+        searchTask.nextFrame();
+    }
+
+    private void runSearch(String query) {
+        var start = Performance.now();
+        if (query.startsWith(FUZZY_PREFIX)) {
+            runFuzzySearch(query.substring(FUZZY_PREFIX.length()));
+            if (Log.DEBUG_ENABLED) debug("Fuzzy search \"" + query + "\": " + currentHits.size() + " hits in " + Math.round(Performance.now() - start) + "ms");
+            return;
+        }
+
+        currentHits = index.searchPrefix(query, MAX_RESULTS);
+        var total = currentHits.size() < MAX_RESULTS ? currentHits.size() : index.countPrefix(query);
+        if (Log.DEBUG_ENABLED) debug("Search \"" + query + "\": " + total + " hits in " + Math.round(Performance.now() - start) + "ms");
+
+        renderResults(query, total, List.of());
+        highlighter.setHits(total <= currentHits.size() ? currentHits : index.searchPrefix(query, MAX_HIGHLIGHTS));
+    }
+
+    /**
+     * Approximate search - near-matches with the lowest confidence are listed first.
+     */
+    private void runFuzzySearch(String query) {
+        var approximateHits = index.searchApproximate(query, MAX_RESULTS);
+        currentHits = approximateHits.stream().map(SearchIndex.ApproximateHit::hit).toList();
+        renderResults(query, currentHits.size(), approximateHits);
+        highlighter.setHits(currentHits);
+    }
+
+    private void renderResults(String query, int total, List<SearchIndex.ApproximateHit> approximateHits) {
+        var status = document.getElementById("ocr-search-status");
+        var results = (HTMLElement) document.getElementById("ocr-search-results");
+        if (status == null || results == null) return;
+
+        results.setInnerHTML("");
+        if (SearchIndex.normalize(query).isEmpty()) {
+            status.setTextContent("");
+            results.getStyle().setProperty("display", "none");
+            return;
+        }
+
+        status.setTextContent(total == 0 ? "No matches" :
+            total + (total == 1 ? " match" : " matches") + (total > currentHits.size() ? " (showing " + currentHits.size() + ")" : ""));
+
+        for (int i = 0; i < currentHits.size(); i++) {
+            var hit = currentHits.get(i);
+            var location = "p." + displayNumber(hit) + " L" + (hit.lineIndex() + 1);
+            if (i < approximateHits.size()) {
+                var approximate = approximateHits.get(i);
+                location += " ~" + approximate.term() + " " + Math.round(approximate.confidence() * 100) + "%";
+            }
+            var item = createSearchResultItem(location, lineSnippet(hit));
+            item.addEventListener("click", evt -> jumpTo(hit));
+            results.appendChild(item);
+        }
+        results.getStyle().setProperty("display", currentHits.isEmpty() ? "none" : "block");
+    }
+
+    private String lineSnippet(SearchIndex.SearchHit hit) {
+        var pageData = pagesByIndex.get(hit.pageIndex());
+        if (pageData == null) return "";
+        var lines = pageData.lines();
+        return hit.lineIndex() < lines.size() ? extractLineText(lines.get(hit.lineIndex())) : "";
+    }
+
+    private int displayNumber(SearchIndex.SearchHit hit) {
+        return pageManager.registry().page(hit.pageIndex())
+            .map(DocumentRegistry.PageElements::displayNumber)
+            .orElse(hit.pageIndex() + 1);
+    }
+
+    /**
+     * Scroll the hit's word element into view.
+     */
+    private void jumpTo(SearchIndex.SearchHit hit) {
+        pageManager.registry().page(hit.pageIndex()).ifPresent(page -> {
+            // A detached page has to be back in the document before it can be scrolled to
+            pageManager.ensurePageAttached(page.index());
+            page.word(hit.lineIndex(), hit.wordIndex()).ifPresent(DocumentSearch::scrollIntoViewCentered);
+        });
+    }
+
+    @JSBody(params = {"element"}, script = "element.scrollIntoView({block: 'center', behavior: 'smooth'});")
+    private static native void scrollIntoViewCentered(Element element);
+
+    // Debug helper
+    private static void debug(String message) {
+        Log.debug("DocumentSearch", message);
+    }
+}
@@ -0,0 +1,180 @@
+package xyz.jphil.win11_oneocr.xhtml_controls_js;
+
+import org.teavm.jso.JSBody;
+import org.teavm.jso.JSFunctor;
+import org.teavm.jso.JSObject;
+import org.teavm.jso.core.JSArray;
+
+import xyz.jphil.win11_oneocr.xhtml_controls_js.utilities.Log;
+import xyz.jphil.win11_oneocr.xhtml_controls_js.utilities.PerformanceMetrics;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/**
+ * Whole-document text for download and copy, streamed page by page into a chunked Blob.
+ * Each page's text becomes its own Blob part as soon as it is extracted, so the JS heap holds
+ * one page of text at a time and the full text only ever exists in browser-managed Blob storage.
+ * Page parts are memoized per page handle and data version - the next export or copy only
+ * re-extracts pages that were re-processed or re-materialized since.
+ * Copying hands a pending ClipboardItem to the clipboard within the click, so the write keeps
+ * its user activation while the export runs over many frames.
+ */
+public class DocumentTextExport {
+
+    public static final String PAGES_EXTRACTED = "textPagesExtracted";
+
+    private final AdaptiveBatcher batcher = new AdaptiveBatcher("textExport");
+    private JSArray<JSObject> pageParts = new JSArray<>();
+    // Handle and data version each part was extracted from
+    private PageData[] partSources = new PageData[0];
+    private int[] partVersions = new int[0];
+    private boolean running = false;
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Build the document text; progress gets the number of pages done.
+     * A page failing to extract stops the export and runs onFailed instead of onComplete.
+     * Returns false without doing anything while an export is already running.
+     */
+    public boolean export(List<PageData> pages, IntConsumer progress, Consumer<JSObject> onComplete, Runnable onFailed) {
+        if (running) return false;
+        running = true;
+        if (partSources.length != pages.size()) {
+            // Page count changed - start over
+            pageParts = new JSArray<>();
+            partSources = new PageData[pages.size()];
+            partVersions = new int[pages.size()];
+        }
+
+        var exportStart = PerformanceMetrics.startStage("textExport");
+        boolean[] failed = {false};
+        batcher.run(pages.size(), i -> {
+            var page = pages.get(i);
+            if (failed[0] || (partSources[i] == page && partVersions[i] == page.version())) return;
+            try {
+                pageParts.set(i, createTextBlob(page.text()));
+            } catch (RuntimeException e) {
+                failed[0] = true;
+                running = false;
+                Log.error("DocumentTextExport", "Text of page index " + page.index() + " failed: " + e.getMessage());
+                onFailed.run();
+                return;
+            }
+            partSources[i] = page;
+            partVersions[i] = page.version();
+            PerformanceMetrics.count(PAGES_EXTRACTED);
+        }, () -> failed[0], done -> {
+            if (!failed[0]) progress.accept(done);
+        }, () -> {
+            if (failed[0]) return;
+            var blob = joinPages(pageParts);
+            running = false;
+            PerformanceMetrics.endStage("textExport", exportStart);
+            if (Log.DEBUG_ENABLED) debug("Exported " + pages.size() + " pages, " + Math.round(blobSize(blob)) + " bytes");
+            onComplete.accept(blob);
+        });
+        return true;
+    }
+
+    /**
+     * Save the document text as a .txt download.
+     */
+    public boolean download(List<PageData> pages, String filename, IntConsumer progress, Runnable onComplete, Runnable onFailed) {
+        return export(pages, progress, blob -> {
+            downloadBlob(blob, filename);
+            onComplete.run();
+        }, onFailed);
+    }
+
+    /**
+     * Copy the document text to the clipboard. Call from the click handler itself.
+     * Falls back to writeText with the joined text where ClipboardItem is unavailable.
+     */
+    public boolean copy(List<PageData> pages, IntConsumer progress, ClipboardResult onResult) {
+        if (running) return false;
+        var pending = openClipboardWrite(onResult);
+        return export(pages, progress, blob -> {
+            if (pending != null) {
+                resolveClipboardWrite(pending, blob);
+            } else {
+                writeBlobAsText(blob, onResult);
+            }
+        }, () -> {
+            // A rejected pending item fails the clipboard write, which reports false
+            if (pending != null) {
+                rejectClipboardWrite(pending);
+            } else {
+                onResult.done(false);
+            }
+        });
+    }
+
+    @JSFunctor
+    public interface ClipboardResult extends JSObject {
+        void done(boolean copied);
+    }
+
+    @JSBody(params = {"text"}, script = "return new Blob([text], {type: 'text/plain;charset=utf-8'});")
+    private static native JSObject createTextBlob(String text);
+
+    // Blob parts are referenced, not copied - joining is cheap whatever the document size
+    @JSBody(params = {"parts"}, script = """
+        var joined = [];
+        for (var i = 0; i < parts.length; i++) {
+            if (i > 0) joined.push('\\n\\n');
+            joined.push(parts[i]);
+        }
+        return new Blob(joined, {type: 'text/plain;charset=utf-8'});
+        """)
+    private static native JSObject joinPages(JSArray<JSObject> parts);
+
+    @JSBody(params = {"blob"}, script = "return blob.size;")
+    private static native double blobSize(JSObject blob);
+
+    @JSBody(params = {"blob", "filename"}, script = """
+        var url = URL.createObjectURL(blob);
+        var link = document.createElement('a');
+        link.href = url;
+        link.download = filename;
+        link.style.display = 'none';
+        document.body.appendChild(link);
+        link.click();
+        document.body.removeChild(link);
+        setTimeout(function() { URL.revokeObjectURL(url); }, 10000);
+        """)
+    private static native void downloadBlob(JSObject blob, String filename);
+
+    @JSBody(params = {"callback"}, script = """
+        if (typeof ClipboardItem === 'undefined' || !navigator.clipboard || !navigator.clipboard.write) return null;
+        var pending = {};
+        var blob = new Promise(function(resolve, reject) { pending.resolve = resolve; pending.reject = reject; });
+        navigator.clipboard.write([new ClipboardItem({'text/plain': blob})]).then(
+            function() { callback(true); },
+            function(err) { console.error('Failed to copy document text: ', err); callback(false); });
+        return pending;
+        """)
+    private static native JSObject openClipboardWrite(ClipboardResult callback);
+
+    @JSBody(params = {"pending", "blob"}, script = "pending.resolve(blob);")
+    private static native void resolveClipboardWrite(JSObject pending, JSObject blob);
+
+    @JSBody(params = {"pending"}, script = "pending.reject(new Error('Document text export failed'));")
+    private static native void rejectClipboardWrite(JSObject pending);
+
+    @JSBody(params = {"blob", "callback"}, script = """
+        blob.text().then(function(text) { return navigator.clipboard.writeText(text); }).then(
+            function() { callback(true); },
+            function(err) { console.error('Failed to copy document text: ', err); callback(false); });
+        """)
+    private static native void writeBlobAsText(JSObject blob, ClipboardResult callback);
+
+    // Debug helper
+    private static void debug(String message) {
+        Log.debug("DocumentTextExport", message);
+    }
+}
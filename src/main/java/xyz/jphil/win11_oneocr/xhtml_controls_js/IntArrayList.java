@@ -0,0 +1,48 @@
+package xyz.jphil.win11_oneocr.xhtml_controls_js;
+
+import java.util.Arrays;
+
+/**
+ * Minimal growable list of primitive ints.
+ * Avoids boxed Integer lists in index structures that hold millions of entries.
+ */
+public final class IntArrayList {
+
+    private int[] values;
+    private int size = 0;
+
+    public IntArrayList() {
+        this(8);
+    }
+
+    public IntArrayList(int initialCapacity) {
+        this.values = new int[Math.max(1, initialCapacity)];
+    }
+
+    public void add(int value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, values.length * 2);
+        }
+        values[size++] = value;
+    }
+
+    public int get(int index) {
+        return values[index];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int last() {
+        return values[size - 1];
+    }
+
+    public void clear() {
+        size = 0;
+    }
+}
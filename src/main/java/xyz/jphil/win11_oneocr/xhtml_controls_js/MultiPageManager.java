@@ -4,23 +4,37 @@ import org.teavm.jso.dom.html.HTMLDocument;
 import org.teavm.jso.dom.html.HTMLElement;
 import org.teavm.jso.browser.Window;
 
+import xyz.jphil.win11_oneocr.xhtml_controls_js.utilities.Log;
+import xyz.jphil.win11_oneocr.xhtml_controls_js.utilities.PerformanceMetrics;
+
 import java.util.List;
 import java.util.Optional;
+import java.util.function.IntConsumer;
 
-import static xyz.jphil.win11_oneocr.xhtml_controls_js.utilities.DomUtilities.*;
 import static xyz.jphil.win11_oneocr.xhtml_controls_js.utilities.AttributeParser.*;
 
 /**
  * Manages multiple OCR pages in a document.
  * Discovers section.win11OneOcrPage elements and determines if document is multi-page.
  * Deep module that handles multi-page detection and coordination complexity.
+ * Element lookups go through the DocumentRegistry - no per-call DOM queries.
  */
 public class MultiPageManager {
     
     private final HTMLDocument document;
+    private final DocumentRegistry registry;
+    private DetachedPaging paging;
     
     public MultiPageManager() {
         this.document = Window.current().getDocument();
+        this.registry = new DocumentRegistry(document);
+    }
+    
+    /**
+     * Shared element registry for all subsystems.
+     */
+    public DocumentRegistry registry() {
+        return registry;
     }
     
     /**
@@ -29,16 +43,16 @@ public class MultiPageManager {
      */
     public boolean isMultiPage() {
         // First check meta tag
-        var pageCountMeta = document.querySelector("meta[name=\"pagesCount\"]");
-        if (pageCountMeta != null) {
-            var pageCount = parseIntAttribute(pageCountMeta, "content", 1);
-            debug("Found pagesCount meta tag: " + pageCount + " pages");
+        var pageCountMeta = registry.meta("pagesCount");
+        if (pageCountMeta.isPresent()) {
+            var pageCount = parseIntAttribute(pageCountMeta.get(), "content", 1);
+            if (Log.DEBUG_ENABLED) debug("Found pagesCount meta tag: " + pageCount + " pages");
             return pageCount > 1;
         }
         
         // Fallback: count actual sections
-        var pageCount = getAllPages().size();
-        debug("No pagesCount meta, counted " + pageCount + " section elements");
+        var pageCount = registry.pageCount();
+        if (Log.DEBUG_ENABLED) debug("No pagesCount meta, counted " + pageCount + " section elements");
         return pageCount > 1;
     }
     
@@ -46,11 +60,9 @@ public class MultiPageManager {
      * Get total page count in document.
      */
     public int getPageCount() {
-        var pageCountMeta = document.querySelector("meta[name=\"pagesCount\"]");
-        if (pageCountMeta != null) {
-            return parseIntAttribute(pageCountMeta, "content", 1);
-        }
-        return getAllPages().size();
+        return registry.meta("pagesCount")
+            .map(meta -> parseIntAttribute(meta, "content", 1))
+            .orElseGet(registry::pageCount);
     }
     
     /**
@@ -58,7 +70,7 @@ public class MultiPageManager {
      * Returns list ordered by DOM appearance (should match pageNum attributes).
      */
     public List<HTMLElement> getAllPages() {
-        return queryAll("section.win11OneOcrPage");
+        return registry.pages().stream().map(DocumentRegistry.PageElements::section).toList();
     }
     
     /**
@@ -66,19 +78,11 @@ public class MultiPageManager {
      * First tries pageNum attribute, falls back to DOM position.
      */
     public Optional<HTMLElement> getPage(int pageNumber) {
-        // Try finding by pageNum attribute first
-        var pageByAttr = document.querySelector("section.win11OneOcrPage[pageNum=\"" + pageNumber + "\"]");
-        if (pageByAttr != null) {
-            return Optional.of((HTMLElement) pageByAttr);
+        var pages = registry.pages();
+        for (var page : pages) {
+            if (page.displayNumber() == pageNumber) return Optional.of(page.section());
         }
-        
-        // Fallback: use DOM position (1-indexed)
-        var allPages = getAllPages();
-        if (pageNumber >= 1 && pageNumber <= allPages.size()) {
-            return Optional.of(allPages.get(pageNumber - 1));
-        }
-        
-        return Optional.empty();
+        return registry.page(pageNumber - 1).map(DocumentRegistry.PageElements::section);
     }
     
     /**
@@ -86,77 +90,78 @@ public class MultiPageManager {
      * Returns document-wide statistics for multi-page documents.
      */
     public DocumentMetadata getDocumentMetadata() {
-        var totalWords = parseMetaContent("totalWords", 0);
-        var totalSegments = parseMetaContent("totalSegments", 0);  
-        var averageConfidence = parseMetaContent("averageConfidence", 0.0);
+        var totalWords = registry.metaInt("totalWords", 0);
+        var totalSegments = registry.metaInt("totalSegments", 0);  
+        var averageConfidence = registry.metaDouble("averageConfidence", 0.0);
         var pageCount = getPageCount();
         
         return new DocumentMetadata(pageCount, totalWords, totalSegments, averageConfidence);
     }
     
     /**
-     * Process all pages using provided processor function.
+     * Process all pages using provided processor function, in frame-budgeted batches.
      * Handles both single-page and multi-page documents uniformly.
+     * Progress reports the number of pages done; onComplete runs after the last page.
      */
-    public void processAllPages(PageProcessor processor) {
-        var pages = getAllPages();
+    public void processAllPages(PageProcessor processor, AdaptiveBatcher batcher, IntConsumer progress, Runnable onComplete) {
+        var pages = registry.pages();
         var isMulti = isMultiPage();
         
-        debug("Processing " + pages.size() + " pages (multi-page: " + isMulti + ")");
-        
-        for (int i = 0; i < pages.size(); i++) {
-            var page = pages.get(i);
-            var pageNumber = getPageNumber(page).orElse(i + 1);
-            
-            try {
-                debug("Processing page " + pageNumber + " (" + getPageSourceName(page) + ")");
-                processor.processPage(page, pageNumber, isMulti);
-                debug("Page " + pageNumber + " processed successfully");
-            } catch (Exception e) {
-                debug("ERROR processing page " + pageNumber + ": " + e.getMessage());
-                // Continue with other pages - don't let one failure stop all
-            }
-        }
+        if (Log.DEBUG_ENABLED) debug("Processing " + pages.size() + " pages (multi-page: " + isMulti + ")");
         
-        debug("All pages processed");
+        batcher.run(pages.size(), i -> processPage(processor, pages.get(i), isMulti), () -> false, progress, () -> {
+            if (Log.DEBUG_ENABLED) debug("All pages processed");
+            onComplete.run();
+        });
     }
     
-    /**
-     * Get page number from pageNum attribute.
-     */
-    private Optional<Integer> getPageNumber(HTMLElement page) {
-        var pageNumAttr = page.getAttribute("pageNum");
-        if (pageNumAttr != null) {
-            try {
-                return Optional.of(Integer.parseInt(pageNumAttr));
-            } catch (NumberFormatException e) {
-                return Optional.empty();
-            }
+    private void processPage(PageProcessor processor, DocumentRegistry.PageElements page, boolean isMulti) {
+        var pageNumber = page.displayNumber();
+        try {
+            if (Log.DEBUG_ENABLED) debug("Processing page " + pageNumber + " (" + getPageSourceName(page.section()) + ")");
+            processor.processPage(page, pageNumber, isMulti);
+            PerformanceMetrics.count(PerformanceMetrics.PAGES_PROCESSED);
+            if (Log.DEBUG_ENABLED) debug("Page " + pageNumber + " processed successfully");
+        } catch (Exception e) {
+            PerformanceMetrics.count(PerformanceMetrics.PAGE_FAILURES);
+            Log.error("MultiPageManager", "Processing page " + pageNumber + " failed: " + e.getMessage());
+            // Continue with other pages - don't let one failure stop all
         }
-        return Optional.empty();
     }
     
     /**
-     * Get page source name from srcName attribute.
+     * Switch to detached paging when the document has at least minPages pages
+     * (or the URL asks for it): only pages near the viewport stay in the live DOM.
+     * onLayoutChanged runs whenever pages are swapped back in.
      */
-    private String getPageSourceName(HTMLElement page) {
-        return Optional.ofNullable(page.getAttribute("srcName")).orElse("unknown");
+    public boolean startDetachedPaging(int minPages, Runnable onLayoutChanged) {
+        if (paging != null) return true;
+        var pageCount = registry.pageCount();
+        if (!DetachedPaging.shouldPage(pageCount, minPages)) {
+            if (Log.DEBUG_ENABLED) debug("Detached paging off for " + pageCount + " pages");
+            return false;
+        }
+        var candidate = new DetachedPaging(registry, onLayoutChanged);
+        if (!candidate.start()) return false;
+        paging = candidate;
+        Log.info("MultiPageManager", "Detached paging on for " + pageCount + " pages");
+        return true;
     }
     
     /**
-     * Parse meta tag content as integer.
+     * Make sure a page is in the live DOM - call before scrolling to anything on it.
      */
-    private int parseMetaContent(String metaName, int defaultValue) {
-        var meta = document.querySelector("meta[name=\"" + metaName + "\"]");
-        return meta != null ? parseIntAttribute(meta, "content", defaultValue) : defaultValue;
+    public void ensurePageAttached(int pageIndex) {
+        if (paging != null) {
+            paging.ensureAttached(pageIndex);
+        }
     }
     
     /**
-     * Parse meta tag content as double.
+     * Get page source name from srcName attribute.
      */
-    private double parseMetaContent(String metaName, double defaultValue) {
-        var meta = document.querySelector("meta[name=\"" + metaName + "\"]");
-        return meta != null ? parseDoubleAttribute(meta, "content", defaultValue) : defaultValue;
+    private String getPageSourceName(HTMLElement page) {
+        return Optional.ofNullable(page.getAttribute("srcName")).orElse("unknown");
     }
     
     /**
@@ -174,11 +179,11 @@ public class MultiPageManager {
      */
     @FunctionalInterface
     public interface PageProcessor {
-        void processPage(HTMLElement pageElement, int pageNumber, boolean isMultiPage) throws Exception;
+        void processPage(DocumentRegistry.PageElements page, int pageNumber, boolean isMultiPage) throws Exception;
     }
     
     // Debug helper
     private static void debug(String message) {
-        System.out.println("[MultiPageManager] " + message);
+        Log.debug("MultiPageManager", message);
     }
 }
\ No newline at end of file
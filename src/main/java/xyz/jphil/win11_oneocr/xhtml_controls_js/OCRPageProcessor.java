@@ -1,14 +1,16 @@
 package xyz.jphil.win11_oneocr.xhtml_controls_js;
 
 import org.teavm.jso.dom.html.HTMLElement;
-import org.teavm.jso.dom.xml.Element;
 import org.teavm.jso.browser.Window;
 
-import java.util.List;
-import java.util.Optional;
+import xyz.jphil.win11_oneocr.xhtml_controls_js.utilities.Log;
+import xyz.jphil.win11_oneocr.xhtml_controls_js.utilities.MemoryAccounting;
+import xyz.jphil.win11_oneocr.xhtml_controls_js.utilities.MutationQueue;
+import xyz.jphil.win11_oneocr.xhtml_controls_js.utilities.OverlayLayer;
+import xyz.jphil.win11_oneocr.xhtml_controls_js.utilities.PerformanceMetrics;
+
 import java.util.stream.IntStream;
 
-import static xyz.jphil.win11_oneocr.xhtml_controls_js.utilities.AttributeParser.*;
 import static xyz.jphil.win11_oneocr.xhtml_controls_js.utilities.DomUtilities.*;
 import static xyz.jphil.win11_oneocr.xhtml_controls_js.utilities.UIElementFactory.*;
 import static xyz.jphil.win11_oneocr.xhtml_controls_js.utilities.NotificationUtilities.*;
@@ -22,114 +24,64 @@ import static xyz.jphil.win11_oneocr.xhtml_controls_js.utilities.TextUtilities.*
 public class OCRPageProcessor {
     
     private final Config config;
+    private final SegmentGeometry geometry;
     
-    public OCRPageProcessor(Config config) {
+    public OCRPageProcessor(Config config, SegmentGeometry geometry) {
         this.config = config;
+        this.geometry = geometry;
     }
     
     /**
      * Process a single OCR page section.
-     * Extracts OCR data, applies confidence styling, adds hover controls.
+     * Applies confidence styling and adds hover controls; the page data handle
+     * materializes lines and words for this unless it already holds them (e.g. from the page cache).
+     * Controls keep the handle, not the data, so the data can be released later.
      */
-    public OCRData processPage(HTMLElement pageSection, int pageNumber, boolean isMultiPage) {
-        debug("Processing page " + pageNumber + " (multi-page: " + isMultiPage + ")");
-        
-        // Extract OCR data from page DOM
-        var ocrData = buildOCRDataFromPage(pageSection);
+    public void processPage(DocumentRegistry.PageElements page, int pageNumber, boolean isMultiPage, PageData pageData) {
+        if (Log.DEBUG_ENABLED) debug("Processing page " + pageNumber + " (multi-page: " + isMultiPage + 
+              (pageData.isMaterialized() ? ", cached data" : "") + ")");
         
         // Apply confidence-based styling to words
-        applyConfidenceClassesToPage(pageSection, ocrData);
+        var ocrData = pageData.data();
+        MutationQueue.write(() -> {
+            var classificationStart = PerformanceMetrics.now();
+            applyConfidenceClassesToPage(page, ocrData);
+            PerformanceMetrics.endPage("classification", pageNumber, classificationStart);
+        });
         
         // Add interactive hover controls
         if (!isMultiPage) {
             // Single-page gets full interactivity
-            addHoverControlsToPage(pageSection, ocrData);
-            addPageCopyButtonToPage(pageSection, ocrData);
+            addHoverControlsToPage(page, pageData);
+            addPageCopyButtonToPage(page);
         } else {
             // Multi-page gets simplified controls to avoid clutter
-            addSimplifiedControlsToPage(pageSection, ocrData, pageNumber);
+            addSimplifiedControlsToPage(page, pageNumber);
         }
         
-        debug("Page " + pageNumber + " processed: " + ocrData.metadata().totalWords() + " words, " + 
-              ocrData.metadata().totalLines() + " lines");
-        
-        return ocrData;
-    }
-    
-    /**
-     * Extract OCR data from page section DOM.
-     * Converts XHTML structure to structured OCR data model.
-     */
-    private OCRData buildOCRDataFromPage(HTMLElement pageSection) {
-        // Extract metadata from section attributes
-        var metadata = new Metadata(
-            Optional.ofNullable(pageSection.getAttribute("srcName")).orElse("Unknown"),
-            parseIntAttribute(pageSection, "imgWidth", 800),
-            parseIntAttribute(pageSection, "imgHeight", 600),
-            parseDoubleAttribute(pageSection, "angle", 0.0),
-            parseDoubleAttribute(pageSection, "averageConfidence", 0.0),
-            parseIntAttribute(pageSection, "ocrWordsCount", 0),
-            parseIntAttribute(pageSection, "ocrSegmentsCount", 0)
-        );
-        
-        // Extract lines from segments
-        var segments = pageSection.querySelectorAll("segment");
-        var lines = IntStream.range(0, segments.getLength())
-            .mapToObj(i -> buildLineDataFromSegment(segments.get(i), i))
-            .toList();
-        
-        return new OCRData(
-            metadata,
-            lines,
-            Optional.of(metadata.filename())
-        );
-    }
-    
-    /**
-     * Build line data from segment element.
-     */
-    private LineData buildLineDataFromSegment(Element segment, int lineIndex) {
-        var words = segment.querySelectorAll("w");
-        var wordList = IntStream.range(0, words.getLength())
-            .mapToObj(i -> {
-                var word = words.get(i);
-                return new WordData(
-                    word.getTextContent().trim(),
-                    parseDoubleAttribute(word, "p", 0.0),
-                    parseIntAttribute(word, "i", i),
-                    parseBoundingBox(word.getAttribute("b"))
-                );
-            })
-            .toList();
-        
-        return new LineData(lineIndex, Optional.empty(), wordList);
+        if (Log.DEBUG_ENABLED) debug("Page " + pageNumber + " processed: " + pageData.metadata().totalWords() + " words, " + 
+              pageData.metadata().totalLines() + " lines");
     }
     
     /**
      * Apply confidence-based CSS classes to words in page.
      */
-    private void applyConfidenceClassesToPage(HTMLElement pageSection, OCRData ocrData) {
+    private void applyConfidenceClassesToPage(DocumentRegistry.PageElements page, OCRData ocrData) {
         for (int lineIndex = 0; lineIndex < ocrData.lines().size(); lineIndex++) {
             var line = ocrData.lines().get(lineIndex);
             
             // Add line number for CSS targeting
-            var segmentElement = pageSection.querySelector("segment:nth-child(" + (lineIndex + 1) + ")");
-            if (segmentElement != null) {
-                segmentElement.setAttribute("data-line-number", String.valueOf(lineIndex + 1));
-            }
+            var lineNumber = String.valueOf(lineIndex + 1);
+            page.segment(lineIndex).ifPresent(segment -> segment.setAttribute("data-line-number", lineNumber));
             
             // Apply confidence classes to words
             for (int wordIndex = 0; wordIndex < line.words().size(); wordIndex++) {
                 var word = line.words().get(wordIndex);
-                var wordElement = pageSection.querySelector(
-                    "segment:nth-child(" + (lineIndex + 1) + ") w:nth-child(" + (wordIndex + 1) + ")");
-                
-                if (wordElement != null) {
-                    var wEle = (HTMLElement) wordElement;
+                page.word(lineIndex, wordIndex).ifPresent(wEle -> {
                     wEle.setClassName("");
                     var level = ConfidenceLevel.fromConfidence(word.confidence(), config);
                     wEle.getClassList().add(level.htmlClass());
-                }
+                });
             }
         }
     }
@@ -137,138 +89,96 @@ public class OCRPageProcessor {
     /**
      * Add hover controls to page (single-page version).
      */
-    private void addHoverControlsToPage(HTMLElement pageSection, OCRData ocrData) {
-        var segments = pageSection.querySelectorAll("segment");
-        IntStream.range(0, segments.getLength())
-            .forEach(i -> {
-                var segment = (HTMLElement) segments.get(i);
-                addHoverToSegment(segment, i, ocrData);
-            });
+    private void addHoverControlsToPage(DocumentRegistry.PageElements page, PageData pageData) {
+        var segments = page.segments();
+        IntStream.range(0, segments.size())
+            .forEach(i -> addHoverToSegment(segments.get(i), page.index(), i, pageData));
+        MemoryAccounting.listeners(page.index(), 2 * segments.size());
     }
     
     /**
      * Add simplified controls for multi-page (less cluttered).
      */
-    private void addSimplifiedControlsToPage(HTMLElement pageSection, OCRData ocrData, int pageNumber) {
+    private void addSimplifiedControlsToPage(DocumentRegistry.PageElements page, int pageNumber) {
+        var pageSection = page.section();
         // Add page identifier
-        pageSection.setAttribute("data-processed-page", String.valueOf(pageNumber));
+        MutationQueue.write(() -> pageSection.setAttribute("data-processed-page", String.valueOf(pageNumber)));
         
         // Add simple copy button in corner
-        var copyBtn = createSimplePageCopyButton(pageNumber, ocrData);
-        pageSection.appendChild(copyBtn);
+        var copyBtn = createSimplePageCopyButton(pageNumber);
+        MutationQueue.append(pageSection, copyBtn);
+        PerformanceMetrics.count(PerformanceMetrics.DOM_NODES_CREATED);
+        MemoryAccounting.controls(page.index(), 1);
     }
     
     /**
      * Add hover controls to individual segment.
      */
-    private void addHoverToSegment(HTMLElement segment, int lineIndex, OCRData ocrData) {
+    private void addHoverToSegment(HTMLElement segment, int pageIndex, int lineIndex, PageData pageData) {
+        // An unmeasured page is measured next frame; show runs again then if still hovered
+        boolean[] hovered = {false};
+        Runnable[] show = new Runnable[1];
+        show[0] = () -> {
+            if (!hovered[0]) return;
+            geometry.lineBox(pageIndex, lineIndex, show[0]).ifPresent(
+                box -> OverlayLayer.showLineControls(box.right(), box.top(), box.height(),
+                    "Copy line " + (lineIndex + 1), () -> copyLineText(lineIndex, pageData)));
+        };
         segment.addEventListener("mouseenter", evt -> {
-            var controls = createFloatingControls();
-            var copyButton = createLineCopyButton(lineIndex, ocrData);
-            controls.appendChild(copyButton);
-            
-            positionControlsWithinElement(controls, segment, "line");
-            Window.current().getDocument().getBody().appendChild(controls);
+            hovered[0] = true;
+            show[0].run();
         });
-        
         segment.addEventListener("mouseleave", evt -> {
-            hideFloatingControls();
+            hovered[0] = false;
+            OverlayLayer.hideLineControls();
         });
+
+        PerformanceMetrics.add(PerformanceMetrics.LISTENERS_ATTACHED, 2);
     }
     
     /**
      * Add page copy button (single-page version).
      */
-    private void addPageCopyButtonToPage(HTMLElement pageSection, OCRData ocrData) {
-        var copyBtn = createPageCopyButton(ocrData);
-        pageSection.appendChild(copyBtn);
+    private void addPageCopyButtonToPage(DocumentRegistry.PageElements page) {
+        var copyBtn = createPageCopyButton();
+        MutationQueue.append(page.section(), copyBtn);
+        PerformanceMetrics.count(PerformanceMetrics.DOM_NODES_CREATED);
+        MemoryAccounting.controls(page.index(), 1);
     }
     
     /**
-     * Create line copy button for hover controls.
+     * Copy one line's text, as offered by the hover controls.
      */
-    private HTMLElement createLineCopyButton(int lineIndex, OCRData ocrData) {
-        var button = (HTMLElement) Window.current().getDocument().createElement("button");
-        button.setTextContent("📋 Line " + (lineIndex + 1));
-        button.addEventListener("click", evt -> {
-            if (lineIndex < ocrData.lines().size()) {
-                var line = ocrData.lines().get(lineIndex);
-                var text = line.words().stream()
-                    .map(WordData::text)
-                    .collect(java.util.stream.Collectors.joining(" "));
-                copyTextWithNotification(text);
-            }
-        });
-        return button;
+    private void copyLineText(int lineIndex, PageData pageData) {
+        var lines = pageData.lines();
+        if (lineIndex < lines.size()) {
+            copyLineTextWithNotification(lines.get(lineIndex));
+        }
     }
     
     /**
-     * Create page copy button.
+     * Create page copy button - clicks are handled by the viewer's delegated page actions.
      */
-    private HTMLElement createPageCopyButton(OCRData ocrData) {
+    private HTMLElement createPageCopyButton() {
         var button = (HTMLElement) Window.current().getDocument().createElement("button");
         button.setTextContent("📄 Copy Page");
-        button.getStyle().setCssText("""
-            position: absolute;
-            top: 10px;
-            right: 10px;
-            background: rgba(0, 0, 0, 0.8);
-            color: white;
-            border: 1px solid rgba(255, 255, 255, 0.3);
-            padding: 5px 10px;
-            border-radius: 4px;
-            cursor: pointer;
-            font-size: 11px;
-            z-index: 40;
-            """);
-        
-        button.addEventListener("click", evt -> {
-            copyPageTextWithNotification(ocrData.lines());
-        });
-        
+        button.setClassName("page-copy-button");
         return button;
     }
     
     /**
      * Create simple copy button for multi-page.
      */
-    private HTMLElement createSimplePageCopyButton(int pageNumber, OCRData ocrData) {
+    private HTMLElement createSimplePageCopyButton(int pageNumber) {
         var button = (HTMLElement) Window.current().getDocument().createElement("button");
         button.setTextContent("📄 " + pageNumber);
         button.setTitle("Copy page " + pageNumber + " text");
-        button.getStyle().setCssText("""
-            position: absolute;
-            top: 5px;
-            right: 5px;
-            background: rgba(0, 0, 0, 0.7);
-            color: white;
-            border: none;
-            padding: 3px 6px;
-            border-radius: 3px;
-            cursor: pointer;
-            font-size: 10px;
-            z-index: 30;
-            """);
-        
-        button.addEventListener("click", evt -> {
-            copyPageTextWithNotification(ocrData.lines());
-        });
-        
+        button.setClassName("page-copy-button compact");
         return button;
     }
     
-    /**
-     * Hide floating controls.
-     */
-    private void hideFloatingControls() {
-        var existing = Window.current().getDocument().getElementById("floating-controls");
-        if (existing != null) {
-            removeElement(existing);
-        }
-    }
-    
     // Debug helper
     private static void debug(String message) {
-        System.out.println("[OCRPageProcessor] " + message);
+        Log.debug("OCRPageProcessor", message);
     }
 }
\ No newline at end of file
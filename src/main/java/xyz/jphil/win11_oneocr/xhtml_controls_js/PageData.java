@@ -0,0 +1,114 @@
+package xyz.jphil.win11_oneocr.xhtml_controls_js;
+
+import xyz.jphil.win11_oneocr.xhtml_controls_js.core.OcrPageParser;
+import xyz.jphil.win11_oneocr.xhtml_controls_js.core.TextExtraction;
+import xyz.jphil.win11_oneocr.xhtml_controls_js.utilities.MemoryAccounting;
+import xyz.jphil.win11_oneocr.xhtml_controls_js.utilities.PerformanceMetrics;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Lazy handle on one page's OCR data.
+ * Metadata is parsed up front from the section attributes; lines and words are materialized
+ * on first access - from data hydrated by the page cache, else by parsing the page's elements -
+ * and may be released again by the PageDataStore, after which the next access re-parses.
+ * Hold the handle, not the OCRData, in anything long-lived (listeners, indexes).
+ */
+public final class PageData {
+
+    private final PageDataStore store;
+    private final DocumentRegistry.PageElements source;
+    private final Metadata metadata;
+    private OCRData data;
+    private int version = 0;
+
+    PageData(PageDataStore store, DocumentRegistry.PageElements source, Optional<OCRData> known) {
+        this.store = store;
+        this.source = source;
+        this.metadata = known.map(OCRData::metadata).orElseGet(() -> OcrPageParser.parseMetadata(source));
+        known.ifPresent(this::adopt);
+    }
+
+    /** 0-based page position in DOM order. */
+    public int index() {
+        return source.index();
+    }
+
+    /**
+     * Cheap - never materializes.
+     */
+    public Metadata metadata() {
+        return metadata;
+    }
+
+    public Optional<String> backgroundImagePath() {
+        return data != null ? data.backgroundImagePath() : OcrPageParser.backgroundImagePath(metadata);
+    }
+
+    /**
+     * The full page model, materialized if needed.
+     */
+    public OCRData data() {
+        var current = data;
+        if (current == null) {
+            var start = PerformanceMetrics.now();
+            current = new OCRData(metadata, OcrPageParser.parseLines(source), OcrPageParser.backgroundImagePath(metadata));
+            PerformanceMetrics.endPage("extraction", source.displayNumber(), start);
+            PerformanceMetrics.add(PerformanceMetrics.WORDS_PARSED, adopt(current));
+        }
+        store.touch(this);
+        return current;
+    }
+
+    public List<LineData> lines() {
+        return data().lines();
+    }
+
+    /**
+     * Page text, one output line per OCR line. A released page is parsed transiently,
+     * so reading every page's text (export) does not materialize the whole document.
+     */
+    public String text() {
+        var current = data;
+        return TextExtraction.pageText(current != null ? current.lines() : OcrPageParser.parseLines(source));
+    }
+
+    public boolean isMaterialized() {
+        return data != null;
+    }
+
+    /**
+     * Bumped whenever lines and words are (re)built - anything derived from the text is stale after.
+     */
+    public int version() {
+        return version;
+    }
+
+    // Returns the word count
+    private int adopt(OCRData materialized) {
+        data = materialized;
+        version++;
+        int words = 0, chars = 0;
+        for (var line : materialized.lines()) {
+            for (var word : line.words()) {
+                words++;
+                chars += word.text().length();
+            }
+        }
+        MemoryAccounting.pageData(index(), words, materialized.lines().size(), chars);
+        PerformanceMetrics.count(PageDataStore.MATERIALIZATIONS);
+        store.materialized(this);
+        return words;
+    }
+
+    /**
+     * Drop lines and words; metadata stays.
+     */
+    void release() {
+        if (data == null) return;
+        data = null;
+        MemoryAccounting.pageData(index(), 0, 0, 0);
+        PerformanceMetrics.count(PageDataStore.RELEASES);
+    }
+}
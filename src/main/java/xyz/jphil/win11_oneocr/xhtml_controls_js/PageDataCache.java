@@ -0,0 +1,284 @@
+package xyz.jphil.win11_oneocr.xhtml_controls_js;
+
+import org.teavm.jso.JSBody;
+import org.teavm.jso.JSFunctor;
+import org.teavm.jso.JSObject;
+import org.teavm.jso.core.JSArray;
+import org.teavm.jso.core.JSDate;
+import org.teavm.jso.core.JSString;
+import org.teavm.jso.dom.html.HTMLElement;
+
+import xyz.jphil.win11_oneocr.xhtml_controls_js.utilities.Log;
+import xyz.jphil.win11_oneocr.xhtml_controls_js.utilities.Scheduler;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Persistent IndexedDB cache of parsed page data.
+ * Entries are keyed by a cheap per-page fingerprint (srcName, ocrWordsCount, averageConfidence,
+ * image size and a hash of the page text), so warm loads hydrate OCRData without scraping
+ * every w element. Total size is bounded with least-recently-used eviction.
+ * Every failure path (no IndexedDB, blocked open, quota) degrades to "cache miss".
+ */
+public class PageDataCache {
+
+    private static final String DB_NAME = "xhtml-ocr-controls-cache";
+    private static final int DB_VERSION = 1;
+    private static final double MAX_CACHE_BYTES = 64 * 1024 * 1024;
+    // Never hold up initialization longer than this waiting for IndexedDB
+    private static final int OPEN_TIMEOUT_MS = 500;
+
+    private JSObject database;
+
+    // Hydrated pages for this load, by page number, and fingerprints of the pages that still need parsing
+    private final Map<Integer, OCRData> hydratedPages = new HashMap<>();
+    private final Map<Integer, String> missedFingerprints = new HashMap<>();
+    private final Map<String, String> pendingWrites = new HashMap<>();
+
+    private int hits = 0;
+    private int misses = 0;
+    private int stored = 0;
+    private int evicted = 0;
+
+    /**
+     * Open the database and look up all pages. Calls onReady exactly once,
+     * with whatever could be hydrated - possibly nothing.
+     */
+    public void hydrate(List<HTMLElement> pages, Runnable onReady) {
+        // Keyed by DOM page index in memory; the stored key is the content fingerprint
+        var fingerprints = new HashMap<Integer, String>();
+        var keys = new ArrayList<String>(pages.size());
+        for (int i = 0; i < pages.size(); i++) {
+            var key = fingerprint(pages.get(i));
+            fingerprints.put(i, key);
+            keys.add(key);
+        }
+
+        var completed = new boolean[1];
+        Runnable finish = () -> {
+            if (completed[0]) return;
+            completed[0] = true;
+            // Whatever did not hydrate must be parsed and written back
+            fingerprints.forEach((pageIndex, key) -> {
+                if (!hydratedPages.containsKey(pageIndex)) missedFingerprints.put(pageIndex, key);
+            });
+            misses += missedFingerprints.size();
+            if (Log.DEBUG_ENABLED) debug("Hydrated " + hits + "/" + pages.size() + " pages from cache (" + misses + " misses)");
+            onReady.run();
+        };
+        Scheduler.after(OPEN_TIMEOUT_MS, finish);
+
+        openDatabase(DB_NAME, DB_VERSION, db -> {
+            if (completed[0]) return;
+            if (db == null) {
+                Log.info("PageDataCache", "IndexedDB unavailable - page data cache disabled");
+                finish.run();
+                return;
+            }
+            database = db;
+            getEntries(db, toJSArray(keys), JSDate.now(), values -> {
+                if (completed[0]) return;
+                for (int i = 0; i < values.getLength(); i++) {
+                    var value = values.get(i);
+                    if (value == null) continue;
+                    var decoded = PageDataCodec.decode(value.stringValue());
+                    if (decoded.isPresent()) {
+                        hydratedPages.put(i, decoded.get());
+                        hits++;
+                    }
+                }
+                finish.run();
+            });
+        });
+    }
+
+    /**
+     * Cached data for a page, if this load hydrated it.
+     */
+    public Optional<OCRData> cached(int pageIndex) {
+        return Optional.ofNullable(hydratedPages.get(pageIndex));
+    }
+
+    /**
+     * Remember freshly parsed data for a page that missed; written on flush().
+     */
+    public void remember(int pageIndex, OCRData data) {
+        var key = missedFingerprints.remove(pageIndex);
+        if (key != null && database != null) {
+            pendingWrites.put(key, PageDataCodec.encode(data));
+        }
+    }
+
+    /**
+     * Write remembered pages and evict least-recently-used entries over the size budget.
+     * Fire-and-forget - nothing in the viewer waits for it.
+     */
+    public void flush() {
+        hydratedPages.clear(); // Hydrated data is owned by the viewer from here on
+        if (database == null || pendingWrites.isEmpty()) return;
+
+        var keys = new ArrayList<String>(pendingWrites.keySet());
+        var values = new ArrayList<String>(keys.size());
+        keys.forEach(key -> values.add(pendingWrites.get(key)));
+        pendingWrites.clear();
+
+        putEntries(database, toJSArray(keys), toJSArray(values), JSDate.now(), ok -> {
+            if (ok) {
+                stored += keys.size();
+            }
+            if (Log.DEBUG_ENABLED) debug("Stored " + keys.size() + " pages in cache: " + (ok ? "ok" : "failed"));
+            evictOverBudget(database, MAX_CACHE_BYTES, count -> {
+                evicted += count;
+                if (Log.DEBUG_ENABLED && count > 0) debug("Evicted " + count + " least-recently-used pages");
+            });
+        });
+    }
+
+    public int hits() { return hits; }
+    public int misses() { return misses; }
+    public int stored() { return stored; }
+    public int evicted() { return evicted; }
+
+    /**
+     * Cheap page fingerprint: section attributes plus an FNV-1a hash of the page text.
+     * Reading textContent once is far cheaper than the per-word attribute scrape it replaces.
+     */
+    public static String fingerprint(HTMLElement section) {
+        var text = section.getTextContent();
+        var hash = 0x811c9dc5;
+        for (int i = 0; i < text.length(); i++) {
+            hash ^= text.charAt(i);
+            hash *= 0x01000193;
+        }
+        return "v" + PageDataCodec.FORMAT_VERSION + "|" +
+               section.getAttribute("srcName") + "|" +
+               section.getAttribute("ocrWordsCount") + "|" +
+               section.getAttribute("averageConfidence") + "|" +
+               section.getAttribute("imgWidth") + "x" + section.getAttribute("imgHeight") + "|" +
+               text.length() + "|" + Integer.toHexString(hash);
+    }
+
+    private static JSArray<JSString> toJSArray(List<String> values) {
+        var array = new JSArray<JSString>();
+        values.forEach(value -> array.push(JSString.valueOf(value)));
+        return array;
+    }
+
+    @JSFunctor
+    interface DatabaseCallback extends JSObject {
+        void onOpen(JSObject database);
+    }
+
+    @JSFunctor
+    interface ValuesCallback extends JSObject {
+        void onValues(JSArray<JSString> values);
+    }
+
+    @JSFunctor
+    interface DoneCallback extends JSObject {
+        void onDone(boolean ok);
+    }
+
+    @JSFunctor
+    interface CountCallback extends JSObject {
+        void onCount(int count);
+    }
+
+    @JSBody(params = {"name", "version", "callback"}, script = """
+        if (typeof indexedDB === 'undefined') { callback(null); return; }
+        var request;
+        try { request = indexedDB.open(name, version); } catch (e) { callback(null); return; }
+        request.onupgradeneeded = function() {
+            var db = request.result;
+            if (!db.objectStoreNames.contains('pages')) db.createObjectStore('pages');
+            if (!db.objectStoreNames.contains('entries')) {
+                db.createObjectStore('entries', {keyPath: 'key'}).createIndex('lastUsed', 'lastUsed');
+            }
+        };
+        request.onsuccess = function() { callback(request.result); };
+        request.onerror = function() { callback(null); };
+        request.onblocked = function() { callback(null); };
+        """)
+    private static native void openDatabase(String name, int version, DatabaseCallback callback);
+
+    // Reads page data and refreshes lastUsed of every hit in one transaction
+    @JSBody(params = {"db", "keys", "now", "callback"}, script = """
+        var results = new Array(keys.length).fill(null);
+        var done = false;
+        var finish = function() { if (!done) { done = true; callback(results); } };
+        try {
+            var tx = db.transaction(['pages', 'entries'], 'readwrite');
+            var pages = tx.objectStore('pages'), entries = tx.objectStore('entries');
+            keys.forEach(function(key, i) {
+                var req = pages.get(key);
+                req.onsuccess = function() {
+                    if (req.result === undefined) return;
+                    results[i] = req.result;
+                    var entry = entries.get(key);
+                    entry.onsuccess = function() {
+                        if (entry.result) { entry.result.lastUsed = now; entries.put(entry.result); }
+                    };
+                };
+            });
+            tx.oncomplete = finish;
+            tx.onabort = finish;
+        } catch (e) {
+            finish();
+        }
+        """)
+    private static native void getEntries(JSObject db, JSArray<JSString> keys, double now, ValuesCallback callback);
+
+    @JSBody(params = {"db", "keys", "values", "now", "callback"}, script = """
+        try {
+            var tx = db.transaction(['pages', 'entries'], 'readwrite');
+            var pages = tx.objectStore('pages'), entries = tx.objectStore('entries');
+            for (var i = 0; i < keys.length; i++) {
+                pages.put(values[i], keys[i]);
+                entries.put({key: keys[i], size: values[i].length * 2, lastUsed: now});
+            }
+            tx.oncomplete = function() { callback(true); };
+            tx.onabort = function() { callback(false); };
+        } catch (e) {
+            callback(false);
+        }
+        """)
+    private static native void putEntries(JSObject db, JSArray<JSString> keys, JSArray<JSString> values,
+                                          double now, DoneCallback callback);
+
+    // Walks entries oldest-first and deletes until the total size fits the budget
+    @JSBody(params = {"db", "maxBytes", "callback"}, script = """
+        var evicted = 0;
+        try {
+            var tx = db.transaction(['pages', 'entries'], 'readwrite');
+            var pages = tx.objectStore('pages'), entries = tx.objectStore('entries');
+            var all = [];
+            var cursorRequest = entries.index('lastUsed').openCursor();
+            cursorRequest.onsuccess = function() {
+                var cursor = cursorRequest.result;
+                if (cursor) { all.push(cursor.value); cursor.continue(); return; }
+                var total = 0;
+                for (var i = 0; i < all.length; i++) total += all[i].size;
+                for (var j = 0; j < all.length && total > maxBytes; j++) {
+                    pages.delete(all[j].key);
+                    entries.delete(all[j].key);
+                    total -= all[j].size;
+                    evicted++;
+                }
+            };
+            tx.oncomplete = function() { callback(evicted); };
+            tx.onabort = function() { callback(0); };
+        } catch (e) {
+            callback(0);
+        }
+        """)
+    private static native void evictOverBudget(JSObject db, double maxBytes, CountCallback callback);
+
+    // Debug helper
+    private static void debug(String message) {
+        Log.debug("PageDataCache", message);
+    }
+}
@@ -0,0 +1,154 @@
+package xyz.jphil.win11_oneocr.xhtml_controls_js;
+
+import java.util.ArrayList;
+import java.util.Optional;
+
+/**
+ * Compact string encoding of OCRData for persistent caching.
+ * Numbers are ';'-terminated, strings are length-prefixed ("5:hello") so word text never needs escaping.
+ * Decoding is a single forward scan - much cheaper than re-scraping attributes from the DOM.
+ */
+public final class PageDataCodec {
+
+    // Bump when the encoded layout or the parsed model changes - old cache entries then simply miss
+    public static final int FORMAT_VERSION = 1;
+
+    private PageDataCodec() {
+        // Utility class - prevent instantiation
+    }
+
+    public static String encode(OCRData data) {
+        var out = new StringBuilder(256);
+        writeInt(out, FORMAT_VERSION);
+
+        var meta = data.metadata();
+        writeString(out, meta.filename());
+        writeInt(out, meta.imageWidth());
+        writeInt(out, meta.imageHeight());
+        writeNumber(out, meta.angle());
+        writeNumber(out, meta.averageConfidence());
+        writeInt(out, meta.totalWords());
+        writeInt(out, meta.totalLines());
+
+        writeInt(out, data.backgroundImagePath().isPresent() ? 1 : 0);
+        data.backgroundImagePath().ifPresent(path -> writeString(out, path));
+
+        writeInt(out, data.lines().size());
+        for (var line : data.lines()) {
+            writeInt(out, line.id());
+            writeBoundingBox(out, line.boundingBox());
+            writeInt(out, line.words().size());
+            for (var word : line.words()) {
+                writeString(out, word.text());
+                writeNumber(out, word.confidence());
+                writeInt(out, word.index());
+                writeBoundingBox(out, word.boundingBox());
+            }
+        }
+        return out.toString();
+    }
+
+    /**
+     * Decode an encoded page. Returns empty for other format versions or malformed input.
+     */
+    public static Optional<OCRData> decode(String encoded) {
+        try {
+            var in = new Reader(encoded);
+            if (in.readInt() != FORMAT_VERSION) return Optional.empty();
+
+            var metadata = new Metadata(
+                in.readString(),
+                in.readInt(),
+                in.readInt(),
+                in.readNumber(),
+                in.readNumber(),
+                in.readInt(),
+                in.readInt()
+            );
+            var backgroundImagePath = in.readInt() == 1 ? Optional.of(in.readString()) : Optional.<String>empty();
+
+            var lineCount = in.readInt();
+            var lines = new ArrayList<LineData>(lineCount);
+            for (int l = 0; l < lineCount; l++) {
+                var id = in.readInt();
+                var lineBox = in.readBoundingBox();
+                var wordCount = in.readInt();
+                var words = new ArrayList<WordData>(wordCount);
+                for (int w = 0; w < wordCount; w++) {
+                    words.add(new WordData(in.readString(), in.readNumber(), in.readInt(), in.readBoundingBox()));
+                }
+                lines.add(new LineData(id, lineBox, words));
+            }
+            return Optional.of(new OCRData(metadata, lines, backgroundImagePath));
+        } catch (RuntimeException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static void writeInt(StringBuilder out, int value) {
+        out.append(value).append(';');
+    }
+
+    private static void writeNumber(StringBuilder out, double value) {
+        out.append(value).append(';');
+    }
+
+    private static void writeString(StringBuilder out, String value) {
+        out.append(value.length()).append(':').append(value);
+    }
+
+    private static void writeBoundingBox(StringBuilder out, Optional<BoundingBox> box) {
+        if (box.isEmpty()) {
+            writeInt(out, 0);
+            return;
+        }
+        var b = box.get();
+        writeInt(out, 1);
+        writeNumber(out, b.x1()); writeNumber(out, b.y1());
+        writeNumber(out, b.x2()); writeNumber(out, b.y2());
+        writeNumber(out, b.x3()); writeNumber(out, b.y3());
+        writeNumber(out, b.x4()); writeNumber(out, b.y4());
+    }
+
+    /**
+     * Forward-only reader over the encoded form.
+     */
+    private static final class Reader {
+        private final String source;
+        private int position = 0;
+
+        Reader(String source) {
+            this.source = source;
+        }
+
+        int readInt() {
+            return Integer.parseInt(readToken(';'));
+        }
+
+        double readNumber() {
+            return Double.parseDouble(readToken(';'));
+        }
+
+        String readString() {
+            var length = Integer.parseInt(readToken(':'));
+            var value = source.substring(position, position + length);
+            position += length;
+            return value;
+        }
+
+        Optional<BoundingBox> readBoundingBox() {
+            if (readInt() == 0) return Optional.empty();
+            return Optional.of(new BoundingBox(
+                readNumber(), readNumber(), readNumber(), readNumber(),
+                readNumber(), readNumber(), readNumber(), readNumber()));
+        }
+
+        private String readToken(char terminator) {
+            var end = source.indexOf(terminator, position);
+            if (end < 0) throw new IllegalStateException("Truncated page data at " + position);
+            var token = source.substring(position, end);
+            position = end + 1;
+            return token;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package xyz.jphil.win11_oneocr.xhtml_controls_js;
+
+import xyz.jphil.win11_oneocr.xhtml_controls_js.utilities.Log;
+import xyz.jphil.win11_oneocr.xhtml_controls_js.utilities.MemoryAccounting;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Creates the PageData handles and bounds how many are materialized at once.
+ * Materialized pages are kept in access order, least recently used first. Nothing is released
+ * until limit() is called at the end of initialization - which touches every page anyway - then
+ * pages beyond the limit are released from the old end. Crossing the memory budget after that
+ * releases down to a small floor.
+ */
+public class PageDataStore {
+
+    public static final String MATERIALIZATIONS = "pageDataMaterializations";
+    public static final String RELEASES = "pageDataReleases";
+
+    // Kept through memory pressure - the pages just being looked at
+    private static final int PRESSURE_FLOOR = 8;
+
+    // Access-ordered: get() moves a page to the most recent end
+    private final Map<PageData, Boolean> materialized = new LinkedHashMap<>(16, 0.75f, true);
+    private int capacity = Integer.MAX_VALUE;
+    private boolean trimming = false;
+
+    public PageDataStore() {
+        MemoryAccounting.addOverBudgetListener(() -> trim(PRESSURE_FLOOR));
+    }
+
+    /**
+     * Handle for a page; known data (e.g. hydrated from the page cache) starts out materialized.
+     */
+    public PageData create(DocumentRegistry.PageElements page, Optional<OCRData> known) {
+        return new PageData(this, page, known);
+    }
+
+    /**
+     * Keep at most capacity pages materialized from now on.
+     */
+    public void limit(int capacity) {
+        this.capacity = capacity;
+        trimming = true;
+        trim(capacity);
+    }
+
+    void touch(PageData page) {
+        materialized.get(page);
+    }
+
+    void materialized(PageData page) {
+        materialized.put(page, Boolean.TRUE);
+        if (materialized.size() > capacity) {
+            trim(capacity);
+        }
+    }
+
+    private void trim(int keep) {
+        // Initialization still needs every page it just materialized
+        if (!trimming || materialized.size() <= keep) return;
+        var released = 0;
+        var oldest = materialized.keySet().iterator();
+        while (materialized.size() > keep && oldest.hasNext()) {
+            var page = oldest.next();
+            oldest.remove();
+            page.release();
+            released++;
+        }
+        if (Log.DEBUG_ENABLED) debug("Released " + released + " pages, " + materialized.size() + " materialized");
+    }
+
+    // Debug helper
+    private static void debug(String message) {
+        Log.debug("PageDataStore", message);
+    }
+}
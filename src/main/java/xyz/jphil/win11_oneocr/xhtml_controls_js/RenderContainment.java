@@ -0,0 +1,114 @@
+package xyz.jphil.win11_oneocr.xhtml_controls_js;
+
+import org.teavm.jso.JSBody;
+import org.teavm.jso.browser.Window;
+
+import xyz.jphil.win11_oneocr.xhtml_controls_js.utilities.Log;
+import xyz.jphil.win11_oneocr.xhtml_controls_js.utilities.MutationQueue;
+import xyz.jphil.win11_oneocr.xhtml_controls_js.utilities.PerformanceMetrics;
+import xyz.jphil.win11_oneocr.xhtml_controls_js.utilities.Scheduler;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rendering containment for page sections: content-visibility: auto (class "ocr-contained")
+ * plus a per-page contain-intrinsic-size, so off-screen pages skip layout and paint while the
+ * scrollbar stays close to the real document height.
+ * The placeholder height is estimated from the OCR metadata at the rendered section width:
+ * text lines, plus the SVG section at the image aspect ratio when it is shown. The "auto"
+ * keyword lets the browser keep a page's real size once it has been rendered.
+ * "ocr-no-containment" in the page URL query turns it off for A/B measurements.
+ */
+public class RenderContainment {
+
+    public static final String CONTAINED_PAGES = "containedPages";
+
+    // Rough rendered costs of the OCR text and the SVG section chrome (padding, border, header)
+    private static final double TEXT_LINE_PX = 22;
+    private static final double TEXT_CHROME_PX = 40;
+    private static final double SVG_CHROME_PX = 110;
+    private static final double SVG_HORIZONTAL_PADDING_PX = 42;
+    private static final double FALLBACK_WIDTH_PX = 800;
+
+    private final boolean enabled = !isDisabledByUrl();
+    private double sectionWidth = -1;
+    private final Scheduler.Task resizeTask;
+
+    /**
+     * @param reapply re-runs {@link #apply} for every page after the rendered width changed
+     */
+    public RenderContainment(Runnable reapply) {
+        this.resizeTask = new Scheduler.Task(() -> {
+            sectionWidth = -1;
+            reapply.run();
+        });
+        if (enabled) {
+            Window.current().addEventListener("resize", evt -> resizeTask.after(150));
+        } else {
+            Log.info("RenderContainment", "Page containment disabled by URL flag");
+        }
+    }
+
+    public boolean enabled() {
+        return enabled;
+    }
+
+    /**
+     * Read the rendered section width once - call in a read phase, before queueing writes.
+     */
+    public void measure(List<DocumentRegistry.PageElements> pages) {
+        if (!enabled || sectionWidth > 0 || pages.isEmpty()) return;
+        var width = pages.get(0).section().getBoundingClientRect().getWidth();
+        sectionWidth = width > 0 ? width : FALLBACK_WIDTH_PX;
+        if (Log.DEBUG_ENABLED) debug("Section width " + sectionWidth + "px");
+    }
+
+    /**
+     * Queue containment and the estimated intrinsic size for one page.
+     */
+    public void apply(DocumentRegistry.PageElements page, Metadata metadata, boolean svgSectionShown) {
+        if (!enabled) return;
+        var width = sectionWidth > 0 ? sectionWidth : FALLBACK_WIDTH_PX;
+        var height = estimateHeight(metadata, width, svgSectionShown);
+        var size = "auto " + Math.round(width) + "px auto " + Math.round(height) + "px";
+        var section = page.section();
+        MutationQueue.write(() -> {
+            if (!section.getClassList().contains("ocr-contained")) {
+                section.getClassList().add("ocr-contained");
+                PerformanceMetrics.count(CONTAINED_PAGES);
+            }
+            section.getStyle().setProperty("contain-intrinsic-size", size);
+        });
+    }
+
+    /**
+     * Apply to every page with known metadata.
+     */
+    public void applyAll(List<DocumentRegistry.PageElements> pages, Map<Integer, PageData> dataByIndex, boolean svgSectionShown) {
+        if (!enabled) return;
+        measure(pages);
+        for (var page : pages) {
+            var data = dataByIndex.get(page.index());
+            if (data != null) apply(page, data.metadata(), svgSectionShown);
+        }
+        MutationQueue.flush();
+    }
+
+    static double estimateHeight(Metadata metadata, double width, boolean svgSectionShown) {
+        var height = TEXT_CHROME_PX + metadata.totalLines() * TEXT_LINE_PX;
+        if (svgSectionShown && metadata.imageWidth() > 0 && metadata.imageHeight() > 0) {
+            var svgWidth = Math.max(width - SVG_HORIZONTAL_PADDING_PX, 1);
+            height += SVG_CHROME_PX + svgWidth * metadata.imageHeight() / metadata.imageWidth();
+        }
+        return height;
+    }
+
+    @JSBody(script = "return typeof location !== 'undefined' && /[?&]ocr-no-containment\\b/.test(location.search);")
+    private static native boolean isDisabledByUrl();
+
+    // Debug helper
+    private static void debug(String message) {
+        Log.debug("RenderContainment", message);
+    }
+}
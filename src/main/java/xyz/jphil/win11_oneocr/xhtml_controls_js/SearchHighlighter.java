@@ -0,0 +1,233 @@
+package xyz.jphil.win11_oneocr.xhtml_controls_js;
+
+import org.teavm.jso.JSBody;
+import org.teavm.jso.JSFunctor;
+import org.teavm.jso.JSObject;
+import org.teavm.jso.browser.Window;
+import org.teavm.jso.dom.html.HTMLDocument;
+import org.teavm.jso.dom.html.HTMLElement;
+import org.teavm.jso.dom.xml.Element;
+
+import xyz.jphil.win11_oneocr.xhtml_controls_js.utilities.Log;
+import xyz.jphil.win11_oneocr.xhtml_controls_js.utilities.Scheduler;
+import xyz.jphil.win11_oneocr.xhtml_controls_js.utilities.ViewerStyles;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Highlights search hits without mutating the OCR markup.
+ * Uses the CSS Custom Highlight API: hits become Ranges registered in CSS.highlights,
+ * which paints them without style recalculation or layout. Only pages near the viewport
+ * (tracked by an IntersectionObserver) get ranges; they are added and dropped as the user scrolls.
+ * A registry rebuild re-observes every section, so pages added to the document are painted too.
+ * Falls back to toggling a class on the w elements when the API is unavailable.
+ */
+public class SearchHighlighter {
+
+    private static final String HIGHLIGHT_NAME = "ocr-search-hit";
+    private static final String FALLBACK_CLASS = "ocr-search-hit";
+    private static final String PAGE_ATTRIBUTE = "data-ocr-page";
+    // Pages within one viewport height above/below count as "near"
+    private static final String NEAR_VIEWPORT_MARGIN = "100% 0px 100% 0px";
+
+    private final MultiPageManager pageManager;
+    private final HTMLDocument document;
+    private final boolean customHighlightsSupported;
+
+    private JSObject highlight;
+    private JSObject pageObserver;
+    private int observedBuild = -1;
+    private final Scheduler.Task reobserveTask;
+
+    private Map<Integer, List<SearchIndex.SearchHit>> hitsByPage = Map.of();
+    private final Set<Integer> nearViewportPages = new HashSet<>();
+
+    // What is currently painted per page - Ranges (highlight API) or classed elements (fallback)
+    private final Map<Integer, List<JSObject>> rangesByPage = new HashMap<>();
+    private final Map<Integer, List<Element>> classedWordsByPage = new HashMap<>();
+
+    public SearchHighlighter(MultiPageManager pageManager) {
+        this.pageManager = pageManager;
+        this.document = Window.current().getDocument();
+        this.customHighlightsSupported = isCustomHighlightSupported();
+        this.reobserveTask = new Scheduler.Task(this::observePages);
+        if (Log.DEBUG_ENABLED) debug("CSS Custom Highlight API " + (customHighlightsSupported ? "available" : "unavailable - using class fallback"));
+    }
+
+    /**
+     * Replace the highlighted hit set. An empty list clears all highlights.
+     */
+    public void setHits(List<SearchIndex.SearchHit> hits) {
+        clearPainted();
+
+        var grouped = new HashMap<Integer, List<SearchIndex.SearchHit>>();
+        for (var hit : hits) {
+            grouped.computeIfAbsent(hit.pageIndex(), page -> new ArrayList<>()).add(hit);
+        }
+        hitsByPage = grouped;
+
+        if (hits.isEmpty()) return;
+        ensureInitialized();
+        for (var pageIndex : nearViewportPages) {
+            paintPage(pageIndex);
+        }
+        if (Log.DEBUG_ENABLED) debug("Highlighting " + hits.size() + " hits on " + grouped.size() + " pages (" +
+              (rangesByPage.size() + classedWordsByPage.size()) + " pages painted)");
+    }
+
+    private void ensureInitialized() {
+        if (pageObserver != null) return;
+
+        // ::highlight and fallback class rules are part of the shared stylesheet
+        ViewerStyles.install();
+        if (customHighlightsSupported) {
+            highlight = registerHighlight(HIGHLIGHT_NAME);
+        }
+
+        pageObserver = createPageObserver(NEAR_VIEWPORT_MARGIN, this::onPageVisibilityChanged);
+        pageManager.registry().addInvalidationListener(reobserveTask::nextFrame);
+        observePages();
+    }
+
+    // Observe the registry's current sections; after a rebuild everything is re-observed from scratch
+    private void observePages() {
+        var registry = pageManager.registry();
+        var pages = registry.pages();
+        if (registry.builds() == observedBuild) return;
+        if (observedBuild >= 0) {
+            // Fresh observation reports every section again; paint state follows those reports
+            disconnect(pageObserver);
+            clearPainted();
+            nearViewportPages.clear();
+        }
+        observedBuild = registry.builds();
+        for (var page : pages) {
+            var section = page.section();
+            // Registry page index - rewritten, pages may have shifted
+            section.setAttribute(PAGE_ATTRIBUTE, String.valueOf(page.index()));
+            observe(pageObserver, section);
+        }
+    }
+
+    private void onPageVisibilityChanged(HTMLElement section, boolean nearViewport) {
+        var pageIndex = parsePageIndex(section);
+        if (pageIndex < 0) return;
+
+        if (nearViewport) {
+            if (nearViewportPages.add(pageIndex)) {
+                paintPage(pageIndex);
+            }
+        } else if (nearViewportPages.remove(pageIndex)) {
+            unpaintPage(pageIndex);
+        }
+    }
+
+    private void paintPage(int pageIndex) {
+        var hits = hitsByPage.get(pageIndex);
+        if (hits == null || rangesByPage.containsKey(pageIndex) || classedWordsByPage.containsKey(pageIndex)) {
+            return;
+        }
+        var page = pageManager.registry().page(pageIndex);
+        if (page.isEmpty()) return;
+
+        var ranges = new ArrayList<JSObject>();
+        var classed = new ArrayList<Element>();
+        for (var hit : hits) {
+            var word = page.get().word(hit.lineIndex(), hit.wordIndex()).orElse(null);
+            if (word == null) continue;
+
+            if (customHighlightsSupported) {
+                var range = createWordRange(word);
+                addRange(highlight, range);
+                ranges.add(range);
+            } else {
+                word.getClassList().add(FALLBACK_CLASS);
+                classed.add(word);
+            }
+        }
+
+        if (customHighlightsSupported) {
+            rangesByPage.put(pageIndex, ranges);
+        } else {
+            classedWordsByPage.put(pageIndex, classed);
+        }
+    }
+
+    private void unpaintPage(int pageIndex) {
+        var ranges = rangesByPage.remove(pageIndex);
+        if (ranges != null) {
+            ranges.forEach(range -> deleteRange(highlight, range));
+        }
+        var classed = classedWordsByPage.remove(pageIndex);
+        if (classed != null) {
+            classed.forEach(word -> ((HTMLElement) word).getClassList().remove(FALLBACK_CLASS));
+        }
+    }
+
+    private void clearPainted() {
+        if (highlight != null) {
+            clearHighlight(highlight);
+        }
+        rangesByPage.clear();
+        classedWordsByPage.values().forEach(words ->
+            words.forEach(word -> ((HTMLElement) word).getClassList().remove(FALLBACK_CLASS)));
+        classedWordsByPage.clear();
+    }
+
+    private int parsePageIndex(HTMLElement section) {
+        try {
+            var value = section.getAttribute(PAGE_ATTRIBUTE);
+            return value != null ? Integer.parseInt(value) : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    @JSFunctor
+    interface PageVisibilityCallback extends JSObject {
+        void onChange(HTMLElement section, boolean nearViewport);
+    }
+
+    @JSBody(script = "return typeof CSS !== 'undefined' && !!CSS.highlights && typeof Highlight === 'function';")
+    private static native boolean isCustomHighlightSupported();
+
+    @JSBody(params = {"name"}, script = "var h = new Highlight(); CSS.highlights.set(name, h); return h;")
+    private static native JSObject registerHighlight(String name);
+
+    @JSBody(params = {"element"}, script = "var r = document.createRange(); r.selectNodeContents(element); return r;")
+    private static native JSObject createWordRange(Element element);
+
+    @JSBody(params = {"highlight", "range"}, script = "highlight.add(range);")
+    private static native void addRange(JSObject highlight, JSObject range);
+
+    @JSBody(params = {"highlight", "range"}, script = "highlight.delete(range);")
+    private static native void deleteRange(JSObject highlight, JSObject range);
+
+    @JSBody(params = {"highlight"}, script = "highlight.clear();")
+    private static native void clearHighlight(JSObject highlight);
+
+    @JSBody(params = {"margin", "callback"}, script = """
+        return new IntersectionObserver(function(entries) {
+            for (var i = 0; i < entries.length; i++) {
+                callback(entries[i].target, entries[i].isIntersecting);
+            }
+        }, {rootMargin: margin});
+        """)
+    private static native JSObject createPageObserver(String margin, PageVisibilityCallback callback);
+
+    @JSBody(params = {"observer", "element"}, script = "observer.observe(element);")
+    private static native void observe(JSObject observer, Element element);
+
+    @JSBody(params = {"observer"}, script = "observer.disconnect();")
+    private static native void disconnect(JSObject observer);
+
+    // Debug helper
+    private static void debug(String message) {
+        Log.debug("SearchHighlighter", message);
+    }
+}
@@ -0,0 +1,317 @@
+package xyz.jphil.win11_oneocr.xhtml_controls_js;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Document-wide inverted index over OCR word text.
+ * Built incrementally as pages are processed; postings are kept in page order
+ * so prefix queries merge already-sorted lists and stop as soon as enough hits are found.
+ * Deep module with no DOM dependency - the viewer feeds it OCRData page by page.
+ */
+public class SearchIndex {
+
+    private final Map<String, Postings> postingsByTerm = new HashMap<>();
+    private final TrigramIndex trigramIndex = new TrigramIndex();
+
+    // Sorted term dictionary for prefix lookups - rebuilt lazily after new terms arrive
+    private String[] sortedTerms = new String[0];
+    private boolean sortedTermsDirty = false;
+
+    private int indexedWords = 0;
+    private int indexedPages = 0;
+
+    /**
+     * Add all words of one page to the index.
+     * Pages are expected in document order - hits come back in the order pages were added.
+     */
+    public void addPage(int pageIndex, OCRData pageData) {
+        var lines = pageData.lines();
+        for (int lineIndex = 0; lineIndex < lines.size(); lineIndex++) {
+            var words = lines.get(lineIndex).words();
+            for (int wordIndex = 0; wordIndex < words.size(); wordIndex++) {
+                var word = words.get(wordIndex);
+                var term = normalize(word.text());
+                if (term.isEmpty()) continue;
+
+                var postings = postingsByTerm.get(term);
+                if (postings == null) {
+                    postings = new Postings();
+                    postingsByTerm.put(term, postings);
+                    trigramIndex.addTerm(term);
+                    sortedTermsDirty = true;
+                }
+                postings.add(pageIndex, lineIndex, wordIndex, (int) Math.round(word.confidence() * 1000));
+                indexedWords++;
+            }
+        }
+        indexedPages++;
+    }
+
+    /**
+     * Find words starting with the given prefix.
+     * Returns at most maxHits hits ordered by (page, line, word).
+     */
+    public List<SearchHit> searchPrefix(String query, int maxHits) {
+        var prefix = normalize(query);
+        if (prefix.isEmpty() || maxHits <= 0) {
+            return List.of();
+        }
+
+        var matching = matchingPostings(prefix);
+        if (matching.isEmpty()) {
+            return List.of();
+        }
+        if (matching.size() == 1) {
+            return matching.get(0).toHits(maxHits);
+        }
+        return mergeInPageOrder(matching, maxHits);
+    }
+
+    /**
+     * Count all hits for a prefix without materializing them.
+     */
+    public int countPrefix(String query) {
+        var prefix = normalize(query);
+        if (prefix.isEmpty()) return 0;
+
+        var total = 0;
+        for (var postings : matchingPostings(prefix)) {
+            total += postings.size;
+        }
+        return total;
+    }
+
+    /**
+     * Find words within a bounded edit distance of the query, tolerating OCR substitutions.
+     * Near-matches come first, closest edit distance first and lowest confidence first within
+     * a distance - those are the likely OCR mistakes. Exact matches follow. Remaining ties go by
+     * (page, line, word), so the top maxHits are deterministic. Selection is a bounded heap,
+     * so ranking costs O(hits * log maxHits) without sorting every occurrence.
+     */
+    public List<ApproximateHit> searchApproximate(String query, int maxHits) {
+        var term = normalize(query);
+        if (term.isEmpty() || maxHits <= 0) {
+            return List.of();
+        }
+
+        var maxEdits = defaultMaxEdits(term);
+        // Worst-ranked hit on top so it can be evicted when a better one arrives
+        var best = new PriorityQueue<ApproximateHit>(maxHits + 1, (a, b) -> compareRank(b, a));
+
+        for (var match : trigramIndex.findSimilar(term, maxEdits)) {
+            var postings = postingsByTerm.get(match.term());
+            for (int i = 0; i < postings.size; i++) {
+                var confidence = postings.confidenceAt(i);
+                // Cheap reject first - most occurrences lose on distance or confidence alone
+                if (best.size() >= maxHits && ranksAfter(match.distance(), confidence, best.peek())) {
+                    continue;
+                }
+                var candidate = new ApproximateHit(postings.hitAt(i), match.term(), match.distance(), confidence / 1000.0);
+                if (best.size() >= maxHits && compareRank(candidate, best.peek()) >= 0) {
+                    continue;
+                }
+                best.add(candidate);
+                if (best.size() > maxHits) {
+                    best.poll();
+                }
+            }
+        }
+
+        var hits = new ArrayList<>(best);
+        hits.sort(SearchIndex::compareRank);
+        return hits;
+    }
+
+    /**
+     * Edit budget by query length - short words would match too much noise otherwise.
+     */
+    public static int defaultMaxEdits(String normalizedQuery) {
+        var length = normalizedQuery.length();
+        return length <= 2 ? 0 : length <= 6 ? 1 : 2;
+    }
+
+    private static boolean ranksAfter(int distance, int confidencePermille, ApproximateHit worst) {
+        var byDistance = Integer.compare(rankedDistance(distance), rankedDistance(worst.distance()));
+        if (byDistance != 0) return byDistance > 0;
+        return confidencePermille > Math.round(worst.confidence() * 1000);
+    }
+
+    // Negative when a ranks before b
+    private static int compareRank(ApproximateHit a, ApproximateHit b) {
+        var byDistance = Integer.compare(rankedDistance(a.distance()), rankedDistance(b.distance()));
+        if (byDistance != 0) return byDistance;
+        var byConfidence = Double.compare(a.confidence(), b.confidence());
+        if (byConfidence != 0) return byConfidence;
+        var byPage = Integer.compare(a.hit().pageIndex(), b.hit().pageIndex());
+        if (byPage != 0) return byPage;
+        var byLine = Integer.compare(a.hit().lineIndex(), b.hit().lineIndex());
+        return byLine != 0 ? byLine : Integer.compare(a.hit().wordIndex(), b.hit().wordIndex());
+    }
+
+    // Exact matches rank after every near-match
+    private static int rankedDistance(int distance) {
+        return distance == 0 ? Integer.MAX_VALUE : distance;
+    }
+
+    public int indexedWords() { return indexedWords; }
+    public int indexedPages() { return indexedPages; }
+    public int distinctTerms() { return postingsByTerm.size(); }
+
+    /**
+     * Normalize word text for indexing and querying.
+     * Lower-cases and strips leading/trailing punctuation so "Word," matches "word".
+     */
+    public static String normalize(String text) {
+        if (text == null) return "";
+        var start = 0;
+        var end = text.length();
+        while (start < end && !Character.isLetterOrDigit(text.charAt(start))) start++;
+        while (end > start && !Character.isLetterOrDigit(text.charAt(end - 1))) end--;
+        return start < end ? text.substring(start, end).toLowerCase() : "";
+    }
+
+    /**
+     * Collect postings of all terms sharing the prefix via binary search on the sorted dictionary.
+     */
+    private List<Postings> matchingPostings(String prefix) {
+        var terms = sortedTerms();
+        var from = lowerBound(terms, prefix);
+        var result = new ArrayList<Postings>();
+        for (int i = from; i < terms.length && terms[i].startsWith(prefix); i++) {
+            result.add(postingsByTerm.get(terms[i]));
+        }
+        return result;
+    }
+
+    private String[] sortedTerms() {
+        if (sortedTermsDirty) {
+            sortedTerms = postingsByTerm.keySet().toArray(new String[0]);
+            Arrays.sort(sortedTerms);
+            sortedTermsDirty = false;
+        }
+        return sortedTerms;
+    }
+
+    private static int lowerBound(String[] terms, String key) {
+        int low = 0, high = terms.length;
+        while (low < high) {
+            var mid = (low + high) >>> 1;
+            if (terms[mid].compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * K-way merge of page-ordered postings lists using a binary heap of list cursors.
+     * Cost is O(maxHits * log k) regardless of how many words match the prefix.
+     */
+    private static List<SearchHit> mergeInPageOrder(List<Postings> lists, int maxHits) {
+        var k = lists.size();
+        var heap = new int[k];      // list indices ordered by their current entry
+        var cursor = new int[k];    // current entry per list
+        for (int i = 0; i < k; i++) heap[i] = i;
+        for (int i = k / 2 - 1; i >= 0; i--) siftDown(heap, k, i, lists, cursor);
+
+        var hits = new ArrayList<SearchHit>(Math.min(maxHits, 256));
+        var heapSize = k;
+        while (heapSize > 0 && hits.size() < maxHits) {
+            var top = heap[0];
+            var postings = lists.get(top);
+            hits.add(postings.hitAt(cursor[top]));
+            cursor[top]++;
+            if (cursor[top] >= postings.size) {
+                heap[0] = heap[--heapSize];
+            }
+            siftDown(heap, heapSize, 0, lists, cursor);
+        }
+        return hits;
+    }
+
+    private static void siftDown(int[] heap, int size, int index, List<Postings> lists, int[] cursor) {
+        while (true) {
+            var left = index * 2 + 1;
+            if (left >= size) return;
+            var smallest = left;
+            var right = left + 1;
+            if (right < size && compareEntries(lists, cursor, heap[right], heap[left]) < 0) {
+                smallest = right;
+            }
+            if (compareEntries(lists, cursor, heap[smallest], heap[index]) >= 0) return;
+            var tmp = heap[index];
+            heap[index] = heap[smallest];
+            heap[smallest] = tmp;
+            index = smallest;
+        }
+    }
+
+    private static int compareEntries(List<Postings> lists, int[] cursor, int a, int b) {
+        return lists.get(a).compareAt(cursor[a], lists.get(b), cursor[b]);
+    }
+
+    /**
+     * Growable (page, line, word, confidence permille) entries stored flat in one int array.
+     */
+    private static final class Postings {
+        private static final int STRIDE = 4;
+
+        private int[] entries = new int[STRIDE * 2];
+        private int size = 0;
+
+        void add(int page, int line, int word, int confidencePermille) {
+            var offset = size * STRIDE;
+            if (offset + STRIDE > entries.length) {
+                entries = Arrays.copyOf(entries, entries.length * 2);
+            }
+            entries[offset] = page;
+            entries[offset + 1] = line;
+            entries[offset + 2] = word;
+            entries[offset + 3] = confidencePermille;
+            size++;
+        }
+
+        SearchHit hitAt(int index) {
+            var offset = index * STRIDE;
+            return new SearchHit(entries[offset], entries[offset + 1], entries[offset + 2]);
+        }
+
+        int confidenceAt(int index) {
+            return entries[index * STRIDE + 3];
+        }
+
+        List<SearchHit> toHits(int maxHits) {
+            var count = Math.min(size, maxHits);
+            var hits = new ArrayList<SearchHit>(count);
+            for (int i = 0; i < count; i++) hits.add(hitAt(i));
+            return hits;
+        }
+
+        int compareAt(int index, Postings other, int otherIndex) {
+            var a = index * STRIDE;
+            var b = otherIndex * STRIDE;
+            for (int i = 0; i < 3; i++) {
+                var diff = Integer.compare(entries[a + i], other.entries[b + i]);
+                if (diff != 0) return diff;
+            }
+            return 0;
+        }
+    }
+
+    /**
+     * Single search hit - 0-indexed page (DOM order), line and word positions.
+     */
+    public record SearchHit(int pageIndex, int lineIndex, int wordIndex) {}
+
+    /**
+     * Approximate hit with the matched index term, its edit distance and the word's OCR confidence.
+     */
+    public record ApproximateHit(SearchHit hit, String term, int distance, double confidence) {}
+}
@@ -0,0 +1,290 @@
+package xyz.jphil.win11_oneocr.xhtml_controls_js;
+
+import org.teavm.jso.JSBody;
+import org.teavm.jso.JSFunctor;
+import org.teavm.jso.JSObject;
+import org.teavm.jso.browser.Window;
+import org.teavm.jso.dom.html.HTMLElement;
+
+import xyz.jphil.win11_oneocr.xhtml_controls_js.utilities.Log;
+import xyz.jphil.win11_oneocr.xhtml_controls_js.utilities.PerformanceMetrics;
+import xyz.jphil.win11_oneocr.xhtml_controls_js.utilities.Scheduler;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Cached segment boxes, so hover positioning is a lookup and a write - never a layout read.
+ * Boxes are kept relative to their page section, plus the section's document position, so a page
+ * resizing only invalidates its own boxes and the positions of the pages after it.
+ * All measuring happens in one read phase per animation frame, for pages near the viewport
+ * (kept warm as they scroll in) and for pages a lookup missed; the missed lookup is retried
+ * after that pass. A ResizeObserver per section (window resize where unsupported) invalidates
+ * the resized page, one on the body the section positions; registry rebuilds drop everything.
+ */
+public final class SegmentGeometry {
+
+    public static final String MEASURES = "geometryMeasures";
+    public static final String MISSES = "geometryMisses";
+
+    // right, top, height per line - relative to the section's top left
+    private static final int STRIDE = 3;
+    private static final String NEAR_VIEWPORT_MARGIN = "50% 0px 50% 0px";
+    // Observer index reported for the body
+    private static final int BODY = -1;
+
+    private final DocumentRegistry registry;
+    private int builtFromRegistryBuild = -1;
+    private boolean observing = false;
+    private JSObject resizeObserver;
+    private JSObject nearObserver;
+
+    private double[][] boxesByPage = new double[0][];
+    private double[] sectionLeft = new double[0];
+    private double[] sectionTop = new double[0];
+    private boolean[] positioned = new boolean[0];
+    private boolean[] near = new boolean[0];
+
+    private final Set<Integer> pendingPages = new HashSet<>();
+    // Lowest page whose position was dropped since the last measure pass (MAX_VALUE = none)
+    private int stalePositionsFrom = Integer.MAX_VALUE;
+    private final Scheduler.Task measureTask;
+    private Runnable retry;
+
+    public SegmentGeometry(DocumentRegistry registry) {
+        this.registry = registry;
+        this.measureTask = new Scheduler.Task(this::measurePending);
+    }
+
+    /**
+     * Right edge, top and height of a line's segment in document coordinates.
+     */
+    public record LineBox(double right, double top, double height) {}
+
+    /**
+     * Start observing the pages, so those near the viewport are measured before they are hovered.
+     */
+    public void start() {
+        ensureCurrent();
+    }
+
+    /**
+     * Cached box of a line. Empty while the page is unmeasured or stale - it is then measured in
+     * the next frame's read phase and onMeasured runs after it (only the latest miss is retried).
+     */
+    public Optional<LineBox> lineBox(int pageIndex, int lineIndex, Runnable onMeasured) {
+        ensureCurrent();
+        if (pageIndex < 0 || pageIndex >= boxesByPage.length) return Optional.empty();
+        var boxes = boxesByPage[pageIndex];
+        if (boxes == null || !positioned[pageIndex] || pageIndex >= stalePositionsFrom) {
+            PerformanceMetrics.count(MISSES);
+            retry = onMeasured;
+            queue(pageIndex);
+            return Optional.empty();
+        }
+        if (lineIndex < 0 || (lineIndex + 1) * STRIDE > boxes.length) return Optional.empty();
+        var offset = lineIndex * STRIDE;
+        // Zero height: segment was not rendered when measured
+        if (boxes[offset + 2] <= 0) return Optional.empty();
+        return Optional.of(new LineBox(sectionLeft[pageIndex] + boxes[offset],
+            sectionTop[pageIndex] + boxes[offset + 1], boxes[offset + 2]));
+    }
+
+    /**
+     * Drop one page's boxes - its segments may have moved within the section.
+     */
+    public void invalidatePage(int pageIndex) {
+        if (pageIndex < 0 || pageIndex >= boxesByPage.length) return;
+        boxesByPage[pageIndex] = null;
+        queueIfNear(pageIndex);
+    }
+
+    /**
+     * Drop the section positions from a page on - pages keep their boxes, only moved.
+     * Recorded here and applied once by the next measure pass, so a burst of resize
+     * reports costs one sweep over the pages, not one per report.
+     */
+    public void invalidatePositions(int fromPageIndex) {
+        stalePositionsFrom = Math.min(stalePositionsFrom, Math.max(fromPageIndex, 0));
+        measureTask.nextFrame();
+    }
+
+    /**
+     * Drop every section position.
+     */
+    public void invalidatePositions() {
+        invalidatePositions(0);
+    }
+
+    private void ensureCurrent() {
+        var pages = registry.pages(); // rebuilds the registry first if it was invalidated
+        if (registry.builds() == builtFromRegistryBuild) return;
+        builtFromRegistryBuild = registry.builds();
+
+        var count = pages.size();
+        boxesByPage = new double[count][];
+        sectionLeft = new double[count];
+        sectionTop = new double[count];
+        positioned = new boolean[count];
+        near = new boolean[count];
+        pendingPages.clear();
+        stalePositionsFrom = Integer.MAX_VALUE;
+        observe();
+    }
+
+    private void queueIfNear(int pageIndex) {
+        if (near[pageIndex]) queue(pageIndex);
+    }
+
+    private void queue(int pageIndex) {
+        pendingPages.add(pageIndex);
+        measureTask.nextFrame();
+    }
+
+    // Read phase: every pending rect back to back, one layout at most
+    private void measurePending() {
+        ensureCurrent();
+        applyStalePositions();
+        if (pendingPages.isEmpty()) return;
+        var pages = registry.pages();
+        var window = Window.current();
+        var scrollX = window.getScrollX();
+        var scrollY = window.getScrollY();
+        var segmentsMeasured = 0;
+
+        for (var pageIndex : pendingPages) {
+            if (pageIndex >= pages.size()) continue;
+            var page = pages.get(pageIndex);
+            var sectionRect = page.section().getBoundingClientRect();
+            var left = sectionRect.getLeft();
+            var top = sectionRect.getTop();
+            sectionLeft[pageIndex] = left + scrollX;
+            sectionTop[pageIndex] = top + scrollY;
+            positioned[pageIndex] = true;
+            if (boxesByPage[pageIndex] != null) continue;
+
+            var segments = page.segments();
+            var boxes = new double[segments.size() * STRIDE];
+            for (int i = 0; i < segments.size(); i++) {
+                var rect = segments.get(i).getBoundingClientRect();
+                boxes[i * STRIDE] = rect.getRight() - left;
+                boxes[i * STRIDE + 1] = rect.getTop() - top;
+                boxes[i * STRIDE + 2] = rect.getHeight();
+            }
+            boxesByPage[pageIndex] = boxes;
+            segmentsMeasured += segments.size();
+            PerformanceMetrics.count(MEASURES);
+        }
+        if (Log.DEBUG_ENABLED) debug("Measured " + pendingPages.size() + " pages, " + segmentsMeasured + " segments");
+        pendingPages.clear();
+
+        var measured = retry;
+        retry = null;
+        if (measured != null) measured.run();
+    }
+
+    private void applyStalePositions() {
+        if (stalePositionsFrom >= positioned.length) {
+            stalePositionsFrom = Integer.MAX_VALUE;
+            return;
+        }
+        for (int i = stalePositionsFrom; i < positioned.length; i++) {
+            positioned[i] = false;
+            if (near[i]) pendingPages.add(i);
+        }
+        stalePositionsFrom = Integer.MAX_VALUE;
+    }
+
+    private void onResized(int pageIndex) {
+        if (pageIndex == BODY) {
+            // Content above the pages may have changed height
+            invalidatePositions();
+        } else if (pageIndex < boxesByPage.length) {
+            invalidatePage(pageIndex);
+            invalidatePositions(pageIndex + 1);
+        }
+    }
+
+    private void onNearViewport(int pageIndex, boolean nearViewport) {
+        if (pageIndex < 0 || pageIndex >= near.length) return;
+        near[pageIndex] = nearViewport;
+        if (nearViewport && (boxesByPage[pageIndex] == null || !positioned[pageIndex])) {
+            queue(pageIndex);
+        }
+    }
+
+    private void observe() {
+        if (!observing) {
+            observing = true;
+            resizeObserver = createResizeObserver(this::onResized);
+            nearObserver = createNearObserver(NEAR_VIEWPORT_MARGIN, this::onNearViewport);
+            if (resizeObserver == null) {
+                Window.current().addEventListener("resize", evt -> {
+                    Arrays.fill(boxesByPage, null);
+                    invalidatePositions();
+                });
+            } else {
+                observeElement(resizeObserver, Window.current().getDocument().getBody(), BODY);
+            }
+        }
+        // Re-observing an already observed section is a no-op
+        for (var page : registry.pages()) {
+            if (resizeObserver != null) observeElement(resizeObserver, page.section(), page.index());
+            if (nearObserver != null) {
+                observeElement(nearObserver, page.section(), page.index());
+            } else {
+                near[page.index()] = true; // no IntersectionObserver - measure every page up front
+                queue(page.index());
+            }
+        }
+    }
+
+    @JSFunctor
+    interface ResizeCallback extends JSObject {
+        void resized(int pageIndex);
+    }
+
+    @JSFunctor
+    interface NearViewportCallback extends JSObject {
+        void changed(int pageIndex, boolean nearViewport);
+    }
+
+    // Observers keep their own element-to-page-index map, filled by observeElement
+    @JSBody(params = {"callback"}, script = """
+        if (typeof ResizeObserver === 'undefined') return null;
+        var indices = new WeakMap();
+        var observer = new ResizeObserver(function(entries) {
+            for (var i = 0; i < entries.length; i++) {
+                var index = indices.get(entries[i].target);
+                if (index !== undefined) callback(index);
+            }
+        });
+        observer.ocrIndices = indices;
+        return observer;
+        """)
+    private static native JSObject createResizeObserver(ResizeCallback callback);
+
+    @JSBody(params = {"margin", "callback"}, script = """
+        if (typeof IntersectionObserver === 'undefined') return null;
+        var indices = new WeakMap();
+        var observer = new IntersectionObserver(function(entries) {
+            for (var i = 0; i < entries.length; i++) {
+                var index = indices.get(entries[i].target);
+                if (index !== undefined) callback(index, entries[i].isIntersecting);
+            }
+        }, {rootMargin: margin});
+        observer.ocrIndices = indices;
+        return observer;
+        """)
+    private static native JSObject createNearObserver(String margin, NearViewportCallback callback);
+
+    @JSBody(params = {"observer", "element", "index"}, script = "observer.ocrIndices.set(element, index); observer.observe(element);")
+    private static native void observeElement(JSObject observer, HTMLElement element, int index);
+
+    // Debug helper
+    private static void debug(String message) {
+        Log.debug("SegmentGeometry", message);
+    }
+}
@@ -0,0 +1,159 @@
+package xyz.jphil.win11_oneocr.xhtml_controls_js;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Trigram index over distinct search terms for OCR-error-tolerant lookups.
+ * Candidates are pre-filtered with the q-gram count lemma and then verified with a
+ * bounded edit distance that treats common OCR confusions (rn/m, cl/d, vv/w) as single edits.
+ * Works on the term dictionary, not on word occurrences, so size grows with vocabulary only.
+ */
+public class TrigramIndex {
+
+    // Unit separator - a control character OCR text never contains, so padding cannot match real characters
+    private static final char PAD = '\u001F';
+
+    // Multi-character OCR confusions counted as one edit (pairs are symmetric)
+    private static final String[][] OCR_CONFUSIONS = {
+        {"rn", "m"}, {"cl", "d"}, {"vv", "w"}, {"ri", "n"}, {"li", "h"}, {"ii", "u"}
+    };
+
+    private final List<String> terms = new ArrayList<>();
+    private final Map<String, IntArrayList> termIdsByTrigram = new HashMap<>();
+
+    // Scratch buffers reused across queries - sized to the vocabulary
+    private int[] sharedCounts = new int[0];
+    private final IntArrayList touchedTerms = new IntArrayList(256);
+
+    /**
+     * Add a new distinct term. Terms must not be added twice.
+     */
+    public void addTerm(String term) {
+        var termId = terms.size();
+        terms.add(term);
+
+        var padded = pad(term);
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            var trigram = padded.substring(i, i + 3);
+            var ids = termIdsByTrigram.get(trigram);
+            if (ids == null) {
+                ids = new IntArrayList(4);
+                termIdsByTrigram.put(trigram, ids);
+            }
+            // Term ids only grow, so a repeated trigram within one term is always the last entry
+            if (ids.isEmpty() || ids.last() != termId) {
+                ids.add(termId);
+            }
+        }
+    }
+
+    /**
+     * Find terms within maxEdits of the (already normalized) query.
+     */
+    public List<TermMatch> findSimilar(String query, int maxEdits) {
+        if (query.isEmpty()) return List.of();
+
+        if (sharedCounts.length < terms.size()) {
+            sharedCounts = new int[Math.max(terms.size(), sharedCounts.length * 2)];
+        }
+
+        // Count shared distinct trigrams per term
+        var queryTrigrams = distinctTrigrams(query);
+        for (var trigram : queryTrigrams) {
+            var ids = termIdsByTrigram.get(trigram);
+            if (ids == null) continue;
+            for (int i = 0; i < ids.size(); i++) {
+                var termId = ids.get(i);
+                if (sharedCounts[termId]++ == 0) {
+                    touchedTerms.add(termId);
+                }
+            }
+        }
+
+        var matches = new ArrayList<TermMatch>();
+        for (int i = 0; i < touchedTerms.size(); i++) {
+            var termId = touchedTerms.get(i);
+            var shared = sharedCounts[termId];
+            sharedCounts[termId] = 0;
+
+            var term = terms.get(termId);
+            // Every edit, including a confusion edit, changes the length by at most one
+            if (Math.abs(term.length() - query.length()) > maxEdits) continue;
+
+            // q-gram lemma on distinct query trigrams: one edit destroys at most 3 of them,
+            // a confusion edit spans two characters and so at most 6
+            var required = queryTrigrams.size() - maxEdits * 6;
+            if (shared < required) continue;
+
+            var distance = boundedEditDistance(query, term, maxEdits);
+            if (distance <= maxEdits) {
+                matches.add(new TermMatch(term, distance));
+            }
+        }
+        touchedTerms.clear();
+        return matches;
+    }
+
+    public int termCount() {
+        return terms.size();
+    }
+
+    /**
+     * Levenshtein distance with OCR confusion pairs as single edits.
+     * Returns maxEdits + 1 as soon as the distance is known to exceed maxEdits.
+     */
+    public static int boundedEditDistance(String a, String b, int maxEdits) {
+        var n = a.length();
+        var m = b.length();
+        if (Math.abs(n - m) > maxEdits) return maxEdits + 1;
+
+        var d = new int[n + 1][m + 1];
+        for (int i = 0; i <= n; i++) d[i][0] = i;
+        for (int j = 0; j <= m; j++) d[0][j] = j;
+
+        for (int i = 1; i <= n; i++) {
+            var rowMin = Integer.MAX_VALUE;
+            for (int j = 1; j <= m; j++) {
+                var cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                var best = Math.min(Math.min(d[i - 1][j] + 1, d[i][j - 1] + 1), d[i - 1][j - 1] + cost);
+                for (var pair : OCR_CONFUSIONS) {
+                    best = Math.min(best, confusionCost(d, a, b, i, j, pair[0], pair[1]));
+                    best = Math.min(best, confusionCost(d, a, b, i, j, pair[1], pair[0]));
+                }
+                d[i][j] = best;
+                rowMin = Math.min(rowMin, best);
+            }
+            if (rowMin > maxEdits) return maxEdits + 1;
+        }
+        return d[n][m];
+    }
+
+    private static int confusionCost(int[][] d, String a, String b, int i, int j, String from, String to) {
+        if (i < from.length() || j < to.length()) return Integer.MAX_VALUE;
+        if (!a.startsWith(from, i - from.length()) || !b.startsWith(to, j - to.length())) return Integer.MAX_VALUE;
+        return d[i - from.length()][j - to.length()] + 1;
+    }
+
+    private static String pad(String term) {
+        return "" + PAD + PAD + term + PAD + PAD;
+    }
+
+    private static Set<String> distinctTrigrams(String term) {
+        var padded = pad(term);
+        var trigrams = new HashSet<String>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            trigrams.add(padded.substring(i, i + 3));
+        }
+        return trigrams;
+    }
+
+    /**
+     * Term within the edit bound and its distance from the query.
+     */
+    public record TermMatch(String term, int distance) {}
+}
@@ -1,65 +1,58 @@
 package xyz.jphil.win11_oneocr.xhtml_controls_js;
 
-// State management using records
-public record ViewerState(
-    boolean showLineBoxes,
-    boolean showWordBoxes,
-    boolean showXHTMLText,
-    boolean showSVGText,
-    boolean enableHoverControls,
-    boolean showSVGSection,
-    boolean showSVGBackground,
-    boolean initialized
-) {
+// State management using a compact bitmask - one bit per viewer toggle
+public record ViewerState(int flags) {
+    public static final int SHOW_LINE_BOXES       = 1;
+    public static final int SHOW_WORD_BOXES       = 1 << 1;
+    public static final int SHOW_XHTML_TEXT       = 1 << 2;
+    public static final int SHOW_SVG_TEXT         = 1 << 3;
+    public static final int ENABLE_HOVER_CONTROLS = 1 << 4;
+    public static final int SHOW_SVG_SECTION      = 1 << 5;
+    public static final int SHOW_SVG_BACKGROUND   = 1 << 6;
+    public static final int INITIALIZED           = 1 << 7;
+
+    // Bits that change what a page renders - hover controls and initialized only gate behaviour
+    public static final int DISPLAY_BITS = SHOW_LINE_BOXES | SHOW_WORD_BOXES | SHOW_XHTML_TEXT |
+        SHOW_SVG_TEXT | SHOW_SVG_SECTION | SHOW_SVG_BACKGROUND;
+
     public static final ViewerState DEFAULT = new ViewerState(
-        false,  // showLineBoxes - OFF for clean initial experience
-        false,  // showWordBoxes - OFF for clean initial experience  
-        true,   // showXHTMLText - Keep original XHTML content visible
-        false,  // showSVGText - OFF for clean initial experience
-        false,  // enableHoverControls - OFF for clean initial experience
-        false,  // showSVGSection - OFF for clean initial experience
-        false,  // showSVGBackground - OFF for clean initial experience
-        false   // initialized
+        SHOW_XHTML_TEXT  // Keep original XHTML content visible - everything else OFF for clean initial experience
     );
 
-    public ViewerState withInitialized(boolean initialized) {
-        return new ViewerState(showLineBoxes, showWordBoxes, showXHTMLText,
-            showSVGText, enableHoverControls, showSVGSection, showSVGBackground, initialized);
+    public boolean has(int flag) {
+        return (flags & flag) != 0;
     }
 
-    public ViewerState withShowLineBoxes(boolean showLineBoxes) {
-        return new ViewerState(showLineBoxes, showWordBoxes, showXHTMLText,
-            showSVGText, enableHoverControls, showSVGSection, showSVGBackground, initialized);
+    /**
+     * Return state with the given flag set or cleared.
+     * Returns this instance when nothing changes.
+     */
+    public ViewerState with(int flag, boolean enabled) {
+        var next = enabled ? (flags | flag) : (flags & ~flag);
+        return next == flags ? this : new ViewerState(next);
     }
 
-    public ViewerState withShowWordBoxes(boolean showWordBoxes) {
-        return new ViewerState(showLineBoxes, showWordBoxes, showXHTMLText,
-            showSVGText, enableHoverControls, showSVGSection, showSVGBackground, initialized);
+    /**
+     * Bits that differ between this state and a previously applied flags value.
+     */
+    public int changedBits(int previousFlags) {
+        return flags ^ previousFlags;
     }
 
-    public ViewerState withShowXHTMLText(boolean showXHTMLText) {
-        return new ViewerState(showLineBoxes, showWordBoxes, showXHTMLText,
-            showSVGText, enableHoverControls, showSVGSection, showSVGBackground, initialized);
+    public static boolean changed(int changedBits, int flag) {
+        return (changedBits & flag) != 0;
     }
 
-    public ViewerState withShowSVGText(boolean showSVGText) {
-        return new ViewerState(showLineBoxes, showWordBoxes, showXHTMLText,
-            showSVGText, enableHoverControls, showSVGSection, showSVGBackground, initialized);
-    }
-
-    public ViewerState withEnableHoverControls(boolean enableHoverControls) {
-        return new ViewerState(showLineBoxes, showWordBoxes, showXHTMLText,
-            showSVGText, enableHoverControls, showSVGSection, showSVGBackground, initialized);
-    }
+    public boolean showLineBoxes() { return has(SHOW_LINE_BOXES); }
+    public boolean showWordBoxes() { return has(SHOW_WORD_BOXES); }
+    public boolean showXHTMLText() { return has(SHOW_XHTML_TEXT); }
+    public boolean showSVGText() { return has(SHOW_SVG_TEXT); }
+    public boolean enableHoverControls() { return has(ENABLE_HOVER_CONTROLS); }
+    public boolean showSVGSection() { return has(SHOW_SVG_SECTION); }
+    public boolean showSVGBackground() { return has(SHOW_SVG_BACKGROUND); }
+    public boolean initialized() { return has(INITIALIZED); }
 
-    public ViewerState withShowSVGSection(boolean showSVGSection) {
-        return new ViewerState(showLineBoxes, showWordBoxes, showXHTMLText,
-            showSVGText, enableHoverControls, showSVGSection, showSVGBackground, initialized);
-    }
-
-    public ViewerState withShowSVGBackground(boolean showSVGBackground) {
-        return new ViewerState(showLineBoxes, showWordBoxes, showXHTMLText,
-            showSVGText, enableHoverControls, showSVGSection, showSVGBackground, initialized);
+    public ViewerState withInitialized(boolean initialized) {
+        return with(INITIALIZED, initialized);
     }
 }
-
@@ -0,0 +1,90 @@
+package xyz.jphil.win11_oneocr.xhtml_controls_js;
+
+import org.teavm.jso.JSBody;
+import org.teavm.jso.browser.Storage;
+import org.teavm.jso.browser.Window;
+import xyz.jphil.win11_oneocr.xhtml_controls_js.utilities.Log;
+
+/**
+ * Persists the user's toggle choices in localStorage.
+ * State is stored per document (keyed by its path) and as a global "last used" fallback,
+ * so a new document opens with the toggles the user last worked with.
+ * Reads are synchronous - the restored state is known before the first decoration pass.
+ * Storage being unavailable (file:// restrictions, privacy mode) just means DEFAULT.
+ */
+public class ViewerStateStore {
+
+    private static final String KEY_PREFIX = "xhtml-ocr-controls.viewer-state";
+    private static final String GLOBAL_KEY = KEY_PREFIX + ".global";
+
+    // Only user toggles are persisted - INITIALIZED is runtime state
+    static final int PERSISTED_BITS = ViewerState.DISPLAY_BITS | ViewerState.ENABLE_HOVER_CONTROLS;
+
+    private final String documentKey;
+
+    public ViewerStateStore() {
+        this.documentKey = KEY_PREFIX + ".doc:" + documentPath();
+    }
+
+    /**
+     * Restore state for this document, else the globally last used state, else DEFAULT.
+     */
+    public ViewerState load() {
+        var storage = storage();
+        if (storage == null) return ViewerState.DEFAULT;
+
+        var flags = parseFlags(storage.getItem(documentKey));
+        var source = "document";
+        if (flags < 0) {
+            flags = parseFlags(storage.getItem(GLOBAL_KEY));
+            source = "global";
+        }
+        if (flags < 0) {
+            return ViewerState.DEFAULT;
+        }
+        if (Log.DEBUG_ENABLED) debug("Restored " + source + " viewer state: " + flags);
+        return new ViewerState(flags & PERSISTED_BITS);
+    }
+
+    /**
+     * Save state for this document and as the global default.
+     */
+    public void save(ViewerState state) {
+        var storage = storage();
+        if (storage == null) return;
+
+        var value = String.valueOf(state.flags() & PERSISTED_BITS);
+        try {
+            storage.setItem(documentKey, value);
+            storage.setItem(GLOBAL_KEY, value);
+        } catch (RuntimeException e) {
+            Log.warn("ViewerStateStore", "Could not persist viewer state: " + e.getMessage());
+        }
+    }
+
+    private static int parseFlags(String value) {
+        if (value == null) return -1;
+        try {
+            var flags = Integer.parseInt(value);
+            return flags >= 0 ? flags : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static Storage storage() {
+        return isLocalStorageAvailable() ? Window.current().getLocalStorage() : null;
+    }
+
+    // Accessing localStorage itself throws in sandboxed/opaque origins
+    @JSBody(script = "try { return !!window.localStorage; } catch (e) { return false; }")
+    private static native boolean isLocalStorageAvailable();
+
+    @JSBody(script = "return location.pathname || document.title || '';")
+    private static native String documentPath();
+
+    // Debug helper
+    private static void debug(String message) {
+        Log.debug("ViewerStateStore", message);
+    }
+}
@@ -1,6 +1,7 @@
 package xyz.jphil.win11_oneocr.xhtml_controls_js;
 
 import org.teavm.jso.JSBody;
+import org.teavm.jso.JSObject;
 //import org.teavm.jso.dom.html.*;
 import org.teavm.jso.dom.events.Event;
 import org.teavm.jso.dom.events.EventListener;
@@ -11,16 +12,24 @@ import org.teavm.jso.browser.Window;
 import java.util.*;
 import java.util.stream.IntStream;
 import org.teavm.jso.dom.html.HTMLDocument;
-import org.teavm.jso.dom.html.HTMLButtonElement;
 import org.teavm.jso.dom.html.HTMLElement;
 import org.teavm.jso.dom.html.HTMLInputElement;
 
 // Static imports for utility methods - organized in utilities sub-package
-import org.teavm.jso.dom.xml.NodeList;
 import static xyz.jphil.win11_oneocr.xhtml_controls_js.utilities.DomUtilities.*;
 import static xyz.jphil.win11_oneocr.xhtml_controls_js.utilities.OCRDataFactory.*;
 import static xyz.jphil.win11_oneocr.xhtml_controls_js.utilities.SvgUtilities.*;
+import xyz.jphil.win11_oneocr.xhtml_controls_js.core.PageStatistics;
+import xyz.jphil.win11_oneocr.xhtml_controls_js.utilities.FrameMetrics;
+import xyz.jphil.win11_oneocr.xhtml_controls_js.utilities.Log;
+import xyz.jphil.win11_oneocr.xhtml_controls_js.utilities.LongTaskWatchdog;
+import xyz.jphil.win11_oneocr.xhtml_controls_js.utilities.MemoryAccounting;
+import xyz.jphil.win11_oneocr.xhtml_controls_js.utilities.MutationQueue;
+import xyz.jphil.win11_oneocr.xhtml_controls_js.utilities.OverlayLayer;
+import xyz.jphil.win11_oneocr.xhtml_controls_js.utilities.PerformanceMetrics;
+import xyz.jphil.win11_oneocr.xhtml_controls_js.utilities.Scheduler;
 import xyz.jphil.win11_oneocr.xhtml_controls_js.utilities.UIElementFactory;
+import xyz.jphil.win11_oneocr.xhtml_controls_js.utilities.ViewerStyles;
 import static xyz.jphil.win11_oneocr.xhtml_controls_js.utilities.UIElementFactory.*;
 import static xyz.jphil.win11_oneocr.xhtml_controls_js.utilities.NotificationUtilities.*;
 import static xyz.jphil.win11_oneocr.xhtml_controls_js.utilities.TextUtilities.*;
@@ -32,56 +41,85 @@ import static xyz.jphil.win11_oneocr.xhtml_controls_js.utilities.TextUtilities.*
  */
 public class XHtmlOcrControls {
     
-    // Debug flag - set to false to disable verbose logging
-    private static final boolean VERBOSE_DEBUG = true;
-    
     // Static initializer - fires immediately when class loads
     static {
-        console("*** TeaVM OCRViewer class loaded! JavaScript is executing! ***");
+        Log.info("TeaVM-OCRViewer", "*** TeaVM OCRViewer class loaded! JavaScript is executing! ***");
     }
     
     
     // Instance variables - updated for multi-page support
     private final Config config = Config.DEFAULT;
     private final MultiPageManager pageManager = new MultiPageManager();
-    private final OCRPageProcessor pageProcessor = new OCRPageProcessor(config);
+    private final SegmentGeometry segmentGeometry = new SegmentGeometry(pageManager.registry());
+    private final OCRPageProcessor pageProcessor = new OCRPageProcessor(config, segmentGeometry);
+    private final DocumentSearch documentSearch = new DocumentSearch(pageManager);
+    private final PageDataCache pageDataCache = new PageDataCache();
+    private final PageDataStore pageDataStore = new PageDataStore();
+    private final DocumentTextExport textExport = new DocumentTextExport();
+    private final ViewerStateStore stateStore = new ViewerStateStore();
+    private final DocumentAddressing addressing = new DocumentAddressing(pageManager.registry());
+    private final RenderContainment containment = new RenderContainment(this::reapplyContainment);
+    private final DecorationEviction eviction = new DecorationEviction(pageManager.registry(), this::evictSVGSection, this::rebuildSVGSection);
     private ViewerState state = ViewerState.DEFAULT;
     private final HTMLDocument document = Window.current().getDocument();
-    private Timer hideControlsTimer;
-    
-    // Multi-page state
-    private List<OCRData> allPagesData = new ArrayList<>();
+    private final Scheduler.Task hideControlsTask = new Scheduler.Task(this::hideControls);
+    
+    // Frame-budgeted batch runners - one per pass, so each keeps its own learned per-page cost
+    private final AdaptiveBatcher processingBatcher = new AdaptiveBatcher("pageProcessing");
+    private final AdaptiveBatcher svgBatcher = new AdaptiveBatcher("svgBuild");
+    private final AdaptiveBatcher displayBatcher = new AdaptiveBatcher("displayUpdate");
+    
+    // Display update coalescing - toggles bump the generation, one rAF applies the latest state
+    private int displayGeneration = 0;
+    private final Scheduler.Task displayUpdateTask = new Scheduler.Task(this::updateDisplay);
+    
+    // Display flags last applied to each page (index = page - 1), NEVER_APPLIED until first pass
+    private static final int NEVER_APPLIED = -1;
+    private int[] pageAppliedFlags = new int[0];
+    
+    // Multi-page state - allPagesData in processing order, pageDataByIndex keyed by DOM page index
+    private List<PageData> allPagesData = new ArrayList<>();
+    private final Map<Integer, PageData> pageDataByIndex = new HashMap<>();
+    private HTMLElement hoveredSegment;
+    private int statsPageIndex = -1;
+    private double initStart;
     private boolean isMultiPageDocument = false;
     
     public static void main(String[] args) {
-        debug("main() called - starting TeaVM OCR Viewer");
+        if (Log.DEBUG_ENABLED) debug("main() called - starting TeaVM OCR Viewer");
         XHtmlOcrControls viewer = new XHtmlOcrControls();
         
         
         if (true/*isDocumentReady()*/) { 
             // document is already loaded because we are using a loading script
-            debug("Document is ready, initializing immediately");
+            if (Log.DEBUG_ENABLED) debug("Document is ready, initializing immediately");
             viewer.initializeOCRViewer();
         } else {
-            debug("Document not ready, waiting for DOMContentLoaded");
+            if (Log.DEBUG_ENABLED) debug("Document not ready, waiting for DOMContentLoaded");
             Window.current().getDocument().addEventListener("DOMContentLoaded", evt -> {
-                debug("DOMContentLoaded fired, now initializing");
+                if (Log.DEBUG_ENABLED) debug("DOMContentLoaded fired, now initializing");
                 viewer.initializeOCRViewer();
             });
         }
-        debug("main() completed");
+        if (Log.DEBUG_ENABLED) debug("main() completed");
     }
     
     public void initializeOCRViewer() {
-        debug("initializeOCRViewer() called - Multi-page OCR Viewer");
+        if (Log.DEBUG_ENABLED) debug("initializeOCRViewer() called - Multi-page OCR Viewer");
         if (state.initialized()) {
-            debug("Already initialized, skipping");
+            if (Log.DEBUG_ENABLED) debug("Already initialized, skipping");
             return;
         }
         
+        // One shared stylesheet for everything the viewer creates, before the first element
+        ViewerStyles.install();
+        
+        // Restore persisted toggles now, so the first decoration pass renders the final state
+        state = stateStore.load();
+        
         // Detect document type
         isMultiPageDocument = pageManager.isMultiPage();
-        debug("Document type: " + (isMultiPageDocument ? "Multi-page" : "Single-page"));
+        if (Log.DEBUG_ENABLED) debug("Document type: " + (isMultiPageDocument ? "Multi-page" : "Single-page"));
         
         var pageCount = pageManager.getPageCount();
         
@@ -90,13 +128,13 @@ public class XHtmlOcrControls {
             showLoadingIndicator("Loading " + pageCount + " pages...");
             
             // Small delay to ensure loading indicator appears before heavy processing
-            org.teavm.jso.browser.Window.setTimeout(() -> {
+            Scheduler.after(50, () -> {
                 performInitialization(); // This will handle hiding indicator when complete
-            }, 50);
+            });
         } else {
             // Small documents - initialize immediately
             performInitialization();
-            debug("initializeOCRViewer() completed");
+            if (Log.DEBUG_ENABLED) debug("initializeOCRViewer() completed");
         }
     }
     
@@ -104,6 +142,11 @@ public class XHtmlOcrControls {
      * Perform the actual initialization work (extracted for loading indicator support).
      */
     private void performInitialization() {
+        PerformanceMetrics.publish();
+        MemoryAccounting.publish();
+        MemoryAccounting.setBudget(config.memoryBudgetBytes());
+        LongTaskWatchdog.install();
+        initStart = PerformanceMetrics.startStage("init");
         performInitializationSteps(0);
     }
     
@@ -114,83 +157,125 @@ public class XHtmlOcrControls {
         switch (step) {
             case 0:
                 updateProgress(10);
-                debug("Cleaning up DOM...");
+                if (Log.DEBUG_ENABLED) debug("Cleaning up DOM...");
+                var cleanupStart = PerformanceMetrics.startStage("cleanup");
                 cleanupDOM();
+                PerformanceMetrics.endStage("cleanup", cleanupStart);
                 
-                org.teavm.jso.browser.Window.setTimeout(() -> performInitializationSteps(1), 20);
+                // Hydrate parsed page data from the persistent cache before processing
+                if (Log.DEBUG_ENABLED) debug("Looking up page data cache...");
+                var hydrateStart = PerformanceMetrics.startStage("cacheHydrate");
+                pageDataCache.hydrate(pageManager.getAllPages(), () -> {
+                    PerformanceMetrics.endStage("cacheHydrate", hydrateStart);
+                    Scheduler.after(20, () -> performInitializationSteps(1));
+                });
                 break;
                 
             case 1:
                 updateProgress(20);
-                debug("Processing pages...");
-                pageManager.processAllPages((pageElement, pageNumber, isMultiPage) -> {
-                    var pageData = pageProcessor.processPage(pageElement, pageNumber, isMultiPage);
+                if (Log.DEBUG_ENABLED) debug("Processing pages...");
+                var processingStart = PerformanceMetrics.startStage("pageProcessing");
+                var processingTotal = pageManager.getAllPages().size();
+                pageManager.processAllPages((page, pageNumber, isMultiPage) -> {
+                    var cached = pageDataCache.cached(page.index());
+                    var pageData = pageDataStore.create(page, cached);
+                    pageProcessor.processPage(page, pageNumber, isMultiPage, pageData);
+                    if (cached.isEmpty()) {
+                        pageDataCache.remember(page.index(), pageData.data());
+                    }
                     allPagesData.add(pageData);
+                    pageDataByIndex.put(page.index(), pageData);
+                    documentSearch.indexPage(page.index(), pageData);
+                }, processingBatcher, done -> updateProgress(stepProgress(20, 40, done, processingTotal)), () -> {
+                    pageDataCache.flush();
+                    PerformanceMetrics.endStage("pageProcessing", processingStart);
+                    if (Log.DEBUG_ENABLED) debug("Page data cache: " + pageDataCache.hits() + " hits, " + pageDataCache.misses() + " misses");
+                    
+                    Scheduler.after(20, () -> performInitializationSteps(2));
                 });
-                
-                org.teavm.jso.browser.Window.setTimeout(() -> performInitializationSteps(2), 20);
                 break;
                 
             case 2:
                 updateProgress(40);
-                debug("Setting up HTML sections...");
+                if (Log.DEBUG_ENABLED) debug("Setting up HTML sections...");
+                var setupStart = PerformanceMetrics.startStage("htmlSetup");
                 setupHTMLSection();
+                PerformanceMetrics.endStage("htmlSetup", setupStart);
                 
-                org.teavm.jso.browser.Window.setTimeout(() -> performInitializationSteps(3), 20);
+                Scheduler.after(20, () -> performInitializationSteps(3));
                 break;
                 
             case 3:
                 updateProgress(60);
-                debug("Creating document controls...");
+                if (Log.DEBUG_ENABLED) debug("Creating document controls...");
+                var controlsStart = PerformanceMetrics.startStage("controls");
                 createDocumentControls();
+                PerformanceMetrics.endStage("controls", controlsStart);
                 
-                org.teavm.jso.browser.Window.setTimeout(() -> performInitializationSteps(4), 20);
+                Scheduler.after(20, () -> performInitializationSteps(4));
                 break;
                 
             case 4:
                 updateProgress(75);
-                debug("Creating SVG sections...");
-                createAllSVGSections();
-                
-                org.teavm.jso.browser.Window.setTimeout(() -> performInitializationSteps(5), 20);
+                if (Log.DEBUG_ENABLED) debug("Creating SVG sections...");
+                var svgStart = PerformanceMetrics.startStage("svgBuild");
+                createAllSVGSections(() -> {
+                    PerformanceMetrics.endStage("svgBuild", svgStart);
+                    Scheduler.after(20, () -> performInitializationSteps(5));
+                });
                 break;
                 
             case 5:
                 updateProgress(85);
-                debug("Binding event handlers...");
+                if (Log.DEBUG_ENABLED) debug("Binding event handlers...");
+                var bindingStart = PerformanceMetrics.startStage("eventBinding");
                 bindDocumentEventHandlers();
+                PerformanceMetrics.endStage("eventBinding", bindingStart);
                 
-                org.teavm.jso.browser.Window.setTimeout(() -> performInitializationSteps(6), 20);
+                Scheduler.after(20, () -> performInitializationSteps(6));
                 break;
                 
             case 6:
                 updateProgress(95);
-                debug("Updating display...");
-                // For initial display, use immediate processing (all toggles are OFF)
-                var sections = document.querySelectorAll("section.win11OneOcrPage");
-                for (int pageIndex = 0; pageIndex < sections.getLength(); pageIndex++) {
-                    var section = (HTMLElement) sections.get(pageIndex);
-                    updateDisplayForPage(section, pageIndex + 1);
-                }
-                
-                org.teavm.jso.browser.Window.setTimeout(() -> performInitializationSteps(7), 20);
+                if (Log.DEBUG_ENABLED) debug("Updating display...");
+                // Initial display applies the restored state once - no follow-up toggle pass
+                var displayStart = PerformanceMetrics.startStage("displayUpdate");
+                var pages = pageManager.registry().pages();
+                ensurePageAppliedFlags(pages.size());
+                containment.measure(pages);
+                MemoryAccounting.setImagesVisible(state.showSVGSection() && state.showSVGBackground());
+                displayBatcher.run(pages.size(), i -> updateDisplayForPage(pages.get(i)), () -> false,
+                    done -> updateProgress(stepProgress(95, 100, done, pages.size())), () -> {
+                        PerformanceMetrics.endStage("displayUpdate", displayStart);
+                        Scheduler.after(20, () -> performInitializationSteps(7));
+                    });
                 break;
                 
             case 7:
                 updateProgress(100);
                 state = state.withInitialized(true);
-                debug("Multi-page OCR Viewer initialized successfully!");
-                debug("Processed " + allPagesData.size() + " pages");
+                PerformanceMetrics.endStage("init", initStart);
+                PerformanceMetrics.endPageMeasures();
+                FrameMetrics.markPaintedSince(initStart);
+                FrameMetrics.install();
+                pageManager.startDetachedPaging(config.detachedPagingMinPages(), segmentGeometry::invalidatePositions);
+                segmentGeometry.start();
+                eviction.start();
+                // Everything is built - from here on only pages in use keep their lines and words
+                pageDataStore.limit(config.materializedPagesLimit());
+                if (Log.DEBUG_ENABLED) debug("Multi-page OCR Viewer initialized successfully!");
+                if (Log.DEBUG_ENABLED) debug("Processed " + allPagesData.size() + " pages");
                 
                 // Debug export for first page
                 if (!allPagesData.isEmpty()) {
-                    debug("Exporting debug info for first page...");
+                    if (Log.DEBUG_ENABLED) debug("Exporting debug info for first page...");
                     exportPageDebugInfo(0);
                 }
+                updateStats(0);
                 
                 // Hide loading indicator after initialization completes
                 hideLoadingIndicator();
-                debug("initializeOCRViewer() completed");
+                if (Log.DEBUG_ENABLED) debug("initializeOCRViewer() completed");
                 break;
         }
     }
@@ -200,26 +285,29 @@ public class XHtmlOcrControls {
     // New multi-page methods
     
     private void createDocumentControls() {
-        debug("Creating document-level control panel...");
+        if (Log.DEBUG_ENABLED) debug("Creating document-level control panel...");
         
         // Unified control panel for both single and multi-page documents
         createControlPanel();
     }
     
     private void createControlPanel() {
-        // Global controls for sticky control bar - all OFF by default for clean XHTML experience
+        // Global controls for sticky control bar - reflect the restored state (DEFAULT: only XHTML text on)
         var globalControls = List.of(
-            new UIElementFactory.ControlConfig("toggle-line-boxes", "Line Boxes", false),
-            new UIElementFactory.ControlConfig("toggle-word-boxes", "Word Boxes", false),
-            new UIElementFactory.ControlConfig("toggle-xhtml-text", "XHTML Text", true),  // Keep original XHTML visible
-            new UIElementFactory.ControlConfig("toggle-svg-text", "SVG Text", false),
-            new UIElementFactory.ControlConfig("toggle-hover-controls", "Hover Controls", false),
-            new UIElementFactory.ControlConfig("toggle-svg-section", "SVG Section", false),
-            new UIElementFactory.ControlConfig("toggle-svg-background", "SVG Background", false)
+            new UIElementFactory.ControlConfig("toggle-line-boxes", "Line Boxes", state.showLineBoxes()),
+            new UIElementFactory.ControlConfig("toggle-word-boxes", "Word Boxes", state.showWordBoxes()),
+            new UIElementFactory.ControlConfig("toggle-xhtml-text", "XHTML Text", state.showXHTMLText()),
+            new UIElementFactory.ControlConfig("toggle-svg-text", "SVG Text", state.showSVGText()),
+            new UIElementFactory.ControlConfig("toggle-hover-controls", "Hover Controls", state.enableHoverControls()),
+            new UIElementFactory.ControlConfig("toggle-svg-section", "SVG Section", state.showSVGSection()),
+            new UIElementFactory.ControlConfig("toggle-svg-background", "SVG Background", state.showSVGBackground())
         );
         
         // Create sticky control bar at top (without metadata)
         var stickyControlBar = UIElementFactory.createStickyControlBar(globalControls);
+        var searchBar = UIElementFactory.createSearchBar();
+        searchBar.appendChild(UIElementFactory.createExportControls());
+        stickyControlBar.appendChild(searchBar);
         document.getBody().insertBefore(stickyControlBar, document.getBody().getFirstChild());
         
         // Create separate metadata section below control bar
@@ -234,30 +322,18 @@ public class XHtmlOcrControls {
         metadataSection.setId("metadata-section");
         metadataSection.setClassName("metadata-section");
         
-        // Style the metadata section
-        var sectionStyle = "background: #f8f9fa; " +
-                          "border-bottom: 1px solid #dee2e6; " +
-                          "padding: 12px 20px; " +
-                          "display: flex; " +
-                          "justify-content: space-between; " +
-                          "align-items: center; " +
-                          "font-size: 13px; " +
-                          "color: #495057; " +
-                          "font-family: -apple-system, BlinkMacSystemFont, 'Segoe UI', Roboto, sans-serif;";
-        metadataSection.getStyle().setCssText(sectionStyle);
-        
         var docInfo = pageManager.getDocumentMetadata();
         
         // Check if we have valid metadata - hide section if no meaningful data
         boolean hasValidData = docInfo.totalWords() > 0 || docInfo.averageConfidence() > 0.0;
         if (!hasValidData) {
-            debug("No valid metadata found - hiding metadata section");
+            if (Log.DEBUG_ENABLED) debug("No valid metadata found - hiding metadata section");
             return; // Don't create metadata section if no data
         }
         
         // Left side - document stats
         var leftInfo = (HTMLElement) document.createElement("div");
-        leftInfo.getStyle().setCssText("display: flex; align-items: center; gap: 20px;");
+        leftInfo.setClassName("metadata-stats");
         
         // Basic stats
         var statsSpan = (HTMLElement) document.createElement("span");
@@ -266,15 +342,18 @@ public class XHtmlOcrControls {
                               "🎯 <strong>" + Math.round(docInfo.averageConfidence() * 1000.0) / 10.0 + "%</strong> confidence");
         leftInfo.appendChild(statsSpan);
         
+        // Current page stats, filled by updateStats
+        leftInfo.appendChild(UIElementFactory.createStatsContainer());
+        
         // Right side - timestamp
         var rightInfo = (HTMLElement) document.createElement("div");
-        rightInfo.getStyle().setCssText("display: flex; align-items: center; gap: 15px; color: #6c757d;");
+        rightInfo.setClassName("metadata-timestamps");
         
         // OCR processing timestamp from XHTML meta tags
         var ocrDate = parseMetaContent("date", "");
         if (!ocrDate.isEmpty()) {
             var timestampSpan = (HTMLElement) document.createElement("span");
-            timestampSpan.getStyle().setCssText("font-family: monospace; font-size: 12px;");
+            timestampSpan.setClassName("metadata-timestamp");
             timestampSpan.setTextContent("🕒 OCR: " + formatOCRTimestamp(ocrDate));
             rightInfo.appendChild(timestampSpan);
         }
@@ -352,60 +431,49 @@ public class XHtmlOcrControls {
      * Add a small confidence badge to each page showing per-page confidence.
      * Helps users identify pages with low confidence quickly.
      */
-    private void addPageConfidenceBadge(HTMLElement pageSection, double confidence, int pageNumber) {
+    private void addPageConfidenceBadge(DocumentRegistry.PageElements page, double confidence) {
         // Only show badge if there's valid confidence data
         if (confidence <= 0.0) {
             return;
         }
         
-        var badge = (HTMLElement) document.createElement("div");
-        badge.setClassName("page-confidence-badge");
-        
         // Convert confidence to percentage and determine color
         var confidencePercent = Math.round(confidence * 100.0);
         var badgeClass = confidencePercent >= 80 ? "high" : (confidencePercent >= 50 ? "med" : "low");
         
-        // Position badge to avoid overlap with copy button (which is at top: 5px; right: 5px)
-        var badgeStyle = "position: absolute; " +
-                        "top: 2px; " +
-                        "left: 2px; " +  // Move to left side to avoid copy button
-                        "background: " + (badgeClass.equals("high") ? "#28a745" : 
-                                         (badgeClass.equals("med") ? "#ffc107" : "#dc3545")) + "; " +
-                        "color: white; " +
-                        "padding: 4px 8px; " +
-                        "border-radius: 12px; " +
-                        "font-size: 11px; " +
-                        "font-weight: bold; " +
-                        "z-index: 40; " +  // Higher than copy button (z-index: 30)
-                        "box-shadow: 0 2px 4px rgba(0,0,0,0.2);";
-        
-        badge.getStyle().setCssText(badgeStyle);
+        // Placed top-left, clear of the copy button at top-right; colour from the level class
+        var badge = (HTMLElement) document.createElement("div");
+        badge.setClassName("page-confidence-badge " + badgeClass);
         badge.setTextContent("🎯 " + confidencePercent + "%");
-        badge.setTitle("Page " + pageNumber + " confidence: " + confidencePercent + "%");
+        badge.setTitle("Page " + page.displayNumber() + " confidence: " + confidencePercent + "%");
         
-        pageSection.appendChild(badge);
+        MutationQueue.append(page.section(), badge);
+        PerformanceMetrics.count(PerformanceMetrics.DOM_NODES_CREATED);
+        MemoryAccounting.controls(page.index(), 1);
     }
     
-    private void createAllSVGSections() {
-        debug("Creating SVG sections for all pages...");
-        
-        for (int i = 0; i < allPagesData.size(); i++) {
-            var pageData = allPagesData.get(i);
-            var pageElement = pageManager.getPage(i + 1);
-            
-            if (pageElement.isPresent()) {
-                createSVGSectionForPage(pageElement.get(), pageData, i + 1);
-            }
-        }
+    private void createAllSVGSections(Runnable onComplete) {
+        if (Log.DEBUG_ENABLED) debug("Creating SVG sections for all pages...");
+        
+        // By DOM index - a page that failed to process has no data and gets no SVG section
+        var pages = pageManager.registry().pages();
+        var count = pages.size();
+        svgBatcher.run(count, i -> {
+            var page = pages.get(i);
+            var pageData = pageDataByIndex.get(page.index());
+            if (pageData != null) createSVGSectionForPage(page, pageData);
+        }, () -> false, done -> updateProgress(stepProgress(75, 85, done, count)), onComplete);
     }
     
-    private void createSVGSectionForPage(HTMLElement pageElement, OCRData pageData, int pageNumber) {
-        debug("Creating SVG section for page " + pageNumber);
+    private void createSVGSectionForPage(DocumentRegistry.PageElements page, PageData pageData) {
+        var pageNumber = page.displayNumber();
+        if (Log.DEBUG_ENABLED) debug("Creating SVG section for page " + pageNumber);
+        var pageStart = PerformanceMetrics.now();
         
-        // Find the ocrContent element within this specific page
-        var ocrContent = pageElement.querySelector(".ocrContent");
+        // The ocrContent element within this specific page
+        var ocrContent = page.ocrContent().orElse(null);
         if (ocrContent == null) {
-            debug("ERROR: Missing .ocrContent element for page " + pageNumber);
+            Log.error("TeaVM-OCRViewer", "Missing .ocrContent element for page " + pageNumber);
             return;
         }
         
@@ -414,42 +482,112 @@ public class XHtmlOcrControls {
         svgContainer.setClassName("svg-content page-" + pageNumber);
         svgContainer.setAttribute("data-page", String.valueOf(pageNumber));
         
-        var containerStyle = """
-            position: relative;
-            margin-top: 20px;
-            border-top: 2px solid #ddd;
-            padding: 20px;
-            background: #fafafa;
-            overflow: auto;
-            max-width: 100%;
-            """;
-        svgContainer.getStyle().setCssText(containerStyle);
-        
         // Add page number header
         var pageHeader = (HTMLElement) document.createElement("h3");
         pageHeader.setTextContent("Page " + pageNumber + " - SVG Visualization");
-        pageHeader.getStyle().setCssText("margin-top: 0; color: #666;");
         svgContainer.appendChild(pageHeader);
         
         // Generate SVG for this specific page data
-        var svg = generateSVGFromPageData(pageData);
+        var svg = generateSVGFromPageData(pageData.data());
         svgContainer.appendChild(svg);
         
-        // Insert after the ocrContent within this page
-        ocrContent.getParentNode().insertBefore(svgContainer, ocrContent.getNextSibling());
-        debug("SVG section created and inserted for page " + pageNumber);
+        // Built detached; inserted after the ocrContent in the queue's write phase
+        MutationQueue.insertAfter(ocrContent, svgContainer);
+        page.attachSvgContainer(svgContainer);
+        var svgNodes = 1 + svgContainer.getElementsByTagName("*").getLength();
+        PerformanceMetrics.add(PerformanceMetrics.DOM_NODES_CREATED, svgNodes);
+        // The background image decodes at full resolution once the layer is shown
+        var imagePixels = pageData.backgroundImagePath().isPresent()
+            ? (long) pageData.metadata().imageWidth() * pageData.metadata().imageHeight() : 0L;
+        MemoryAccounting.svg(page.index(), svgNodes, imagePixels);
+        PerformanceMetrics.endPage("svgBuild", pageNumber, pageStart);
+        if (Log.DEBUG_ENABLED) debug("SVG section created and queued for page " + pageNumber);
+    }
+    
+    /**
+     * Tear down a page's SVG section; the page data it was built from stays for a rebuild.
+     */
+    private void evictSVGSection(DocumentRegistry.PageElements page) {
+        page.svgContainer().ifPresent(container -> {
+            MutationQueue.write(() -> removeElement(container));
+            page.attachSvgContainer(null);
+            MemoryAccounting.svg(page.index(), 0, 0L);
+        });
+    }
+    
+    /**
+     * Recreate an evicted SVG section and bring it to the current display state.
+     */
+    private void rebuildSVGSection(DocumentRegistry.PageElements page) {
+        var pageData = pageDataByIndex.get(page.index());
+        if (pageData == null || page.svgContainer().isPresent()) return;
+        createSVGSectionForPage(page, pageData);
+        // Layer and section visibility are per container - apply all of them to the new one
+        var target = state;
+        MutationQueue.write(() -> applyDisplayChanges(page, ViewerState.DISPLAY_BITS, target));
+        MutationQueue.flush();
     }
     
     private void bindDocumentEventHandlers() {
-        debug("Binding document-level event handlers...");
+        if (Log.DEBUG_ENABLED) debug("Binding document-level event handlers...");
         bindEventHandlers(); // Use existing logic for now
+        documentSearch.bind();
+        bindExportControls();
+    }
+    
+    /**
+     * Copy-all and download buttons - the document text streams page by page through DocumentTextExport.
+     */
+    private void bindExportControls() {
+        var copyButton = document.getElementById("ocr-copy-all-btn");
+        var downloadButton = document.getElementById("ocr-download-txt-btn");
+        if (copyButton == null || downloadButton == null) return;
+        
+        copyButton.addEventListener("click", evt -> {
+            if (textExport.isRunning()) {
+                showNotification("Text export already running");
+                return;
+            }
+            showLoadingIndicator("Copying document text...");
+            // Started within the click - the clipboard write keeps the click's user activation
+            textExport.copy(allPagesData, this::updateExportProgress, copied -> {
+                hideLoadingIndicator();
+                showNotification(copied ? "Copied text of " + allPagesData.size() + " pages" : "Copy failed");
+            });
+        });
+        downloadButton.addEventListener("click", evt -> {
+            if (textExport.isRunning()) {
+                showNotification("Text export already running");
+                return;
+            }
+            showLoadingIndicator("Exporting document text...");
+            textExport.download(allPagesData, exportFilename(), this::updateExportProgress, () -> {
+                hideLoadingIndicator();
+                showNotification("Exported text of " + allPagesData.size() + " pages");
+            }, () -> {
+                hideLoadingIndicator();
+                showNotification("Text export failed");
+            });
+        });
+        PerformanceMetrics.add(PerformanceMetrics.LISTENERS_ATTACHED, 2);
+        MemoryAccounting.listeners(MemoryAccounting.DOCUMENT, 2);
+    }
+    
+    private void updateExportProgress(int pagesDone) {
+        updateProgress(stepProgress(0, 100, pagesDone, allPagesData.size()));
+    }
+    
+    private String exportFilename() {
+        var title = document.getTitle();
+        var base = title != null && !title.isBlank() ? title.trim().replaceAll("[\\\\/:*?\"<>|]+", "_") : "ocr-text";
+        return base + ".txt";
     }
     
     private void exportPageDebugInfo(int pageIndex) {
-        if (pageIndex < allPagesData.size()) {
-            var pageData = allPagesData.get(pageIndex);
-            debug("=== DEBUG: Page " + (pageIndex + 1) + " ===");
-            debug("Words: " + pageData.metadata().totalWords() + 
+        var pageData = pageDataByIndex.get(pageIndex);
+        if (pageData != null) {
+            if (Log.DEBUG_ENABLED) debug("=== DEBUG: Page " + (pageIndex + 1) + " ===");
+            if (Log.DEBUG_ENABLED) debug("Words: " + pageData.metadata().totalWords() + 
                   ", Lines: " + pageData.metadata().totalLines() +
                   ", Confidence: " + Math.round(pageData.metadata().averageConfidence() * 1000.0) / 10.0 + "%");
         }
@@ -461,211 +599,153 @@ public class XHtmlOcrControls {
     
     private void setupHTMLSection() {
         // Process ALL pages - get all section elements
-        var sections = document.querySelectorAll("section.win11OneOcrPage");
-        debug("Setting up HTML sections for " + sections.getLength() + " pages");
+        var pages = pageManager.registry().pages();
+        if (Log.DEBUG_ENABLED) debug("Setting up HTML sections for " + pages.size() + " pages");
         
-        for (int pageIndex = 0; pageIndex < sections.getLength(); pageIndex++) {
-            var pageSection = (HTMLElement) sections.get(pageIndex);
-            var pageNumber = pageIndex + 1;
-            
-            debug("Setting up HTML section for page " + pageNumber);
-            setupHTMLSectionForPage(pageSection, pageIndex, pageNumber);
+        for (var page : pages) {
+            if (Log.DEBUG_ENABLED) debug("Setting up HTML section for page " + page.displayNumber());
+            setupHTMLSectionForPage(page);
         }
         
-        debug("HTML section setup completed for all pages");
+        MutationQueue.flush();
+        
+        // One delegated listener serves the hover controls of every page, one the page actions
+        bindHoverControls();
+        bindPageActions();
+        
+        if (Log.DEBUG_ENABLED) debug("HTML section setup completed for all pages");
     }
     
-    private void setupHTMLSectionForPage(HTMLElement pageSection, int pageIndex, int pageNumber) {
+    private void setupHTMLSectionForPage(DocumentRegistry.PageElements page) {
         // Apply confidence classes for this specific page
-        if (pageIndex < allPagesData.size()) {
-            var pageData = allPagesData.get(pageIndex);
-            pageData.lines().forEach(line -> applyConfidenceClassesForPage(line, pageSection));
+        var pageData = pageDataByIndex.get(page.index());
+        if (pageData != null) {
+            var lines = pageData.lines();
+            MutationQueue.write(() -> lines.forEach(line -> applyConfidenceClassesForPage(line, page)));
             
             // Add per-page confidence badge (nice to have feature)
-            addPageConfidenceBadge(pageSection, pageData.metadata().averageConfidence(), pageNumber);
+            addPageConfidenceBadge(page, pageData.metadata().averageConfidence());
         }
-        
-        // Add hover controls for this page
-        addCleanHoverControlsForPage(pageSection, pageIndex, pageNumber);
     }
     
     
-    private void applyConfidenceClassesForPage(LineData line, HTMLElement pageSection) {
-        // Add line number to segment within this specific page (FIXED: Page-scoped selector)
-        var segmentElement = pageSection.querySelector("segment:nth-child(" + (line.id() + 1) + ")");
-        if (segmentElement != null) {
-            segmentElement.setAttribute("data-line-number", String.valueOf(line.id() + 1));
-            debug("Added data-line-number=" + (line.id() + 1) + " to segment " + line.id() + " on page");
-        }
+    private void applyConfidenceClassesForPage(LineData line, DocumentRegistry.PageElements page) {
+        // Add line number to segment within this specific page
+        page.segment(line.id()).ifPresent(segment -> {
+            segment.setAttribute("data-line-number", String.valueOf(line.id() + 1));
+            if (Log.TRACE_ENABLED) Log.trace("TeaVM-OCRViewer", "Added data-line-number=" + (line.id() + 1) + " to segment " + line.id() + " on page");
+        });
         
-        // Apply confidence classes to words within this specific page (FIXED: Page-scoped selectors)
+        // Apply confidence classes to words within this specific page
         for (int index = 0; index < line.words().size(); index++) {
             var word = line.words().get(index);
-            var wordElement = pageSection.querySelector(
-                "segment:nth-child(" + (line.id() + 1) + ") w:nth-child(" + (index + 1) + ")");
-            
-            if (wordElement != null) {
-                var wEle = (HTMLElement)wordElement;
+            page.word(line.id(), index).ifPresent(wEle -> {
                 wEle.setClassName("");
                 var level = ConfidenceLevel.fromConfidence(word.confidence(), config);
                 wEle.getClassList().add(level.htmlClass());
-            }
+            });
         }
     }
     
-    private void addCleanHoverControls() {
-        var sections = document.querySelectorAll("section.win11OneOcrPage");
-        debug("Adding hover controls for " + sections.getLength() + " pages");
-        
-        for (int pageIndex = 0; pageIndex < sections.getLength(); pageIndex++) {
-            var pageSection = (HTMLElement) sections.get(pageIndex);
-            var pageNumber = pageIndex + 1;
+    /**
+     * Hover controls for all segments via delegated mouseover/mouseout on the body.
+     * Emulates mouseenter/mouseleave per segment; the hovered segment resolves to its
+     * (page, line) through DocumentAddressing instead of a closure per segment.
+     */
+    private void bindHoverControls() {
+        var body = document.getBody();
+        body.addEventListener("mouseover", evt -> {
+            var segment = closestSegment(evt.getTarget());
+            if (segment == hoveredSegment) return;
+            if (hoveredSegment != null) {
+                scheduleHideControls(evt); // left the previous segment
+            }
+            hoveredSegment = segment;
+            if (segment == null || !state.enableHoverControls()) return;
             
-            debug("Adding hover controls for page " + pageNumber);
-            addCleanHoverControlsForPage(pageSection, pageIndex, pageNumber);
-        }
+            addressing.addressOf(segment).ifPresent(address -> {
+                cancelHideControlsTimer();
+                updateStats(address.pageIndex());
+                showLineControls(address);
+            });
+        });
+        PerformanceMetrics.add(PerformanceMetrics.LISTENERS_ATTACHED, 2);
+        MemoryAccounting.listeners(MemoryAccounting.DOCUMENT, 2);
+        body.addEventListener("mouseout", evt -> {
+            // Pointer left the document altogether
+            if (((MouseEvent) evt).getRelatedTarget() == null && hoveredSegment != null) {
+                hoveredSegment = null;
+                scheduleHideControls(evt);
+            }
+        });
     }
     
-    private void addCleanHoverControlsForPage(HTMLElement pageSection, int pageIndex, int pageNumber) {
-        var segments = pageSection.querySelectorAll("segment");
-        debug("Adding hover controls to " + segments.getLength() + " segments in page " + pageNumber);
-        
-        IntStream.range(0, segments.getLength())
-            .forEach(i -> addHoverControlsToSegment((HTMLElement)segments.get(i), i));
-    }
+    @JSBody(params = {"target"}, script = "return target && target.closest ? target.closest('segment') : null;")
+    private static native HTMLElement closestSegment(JSObject target);
     
-    private void addHoverControlsToSegment(HTMLElement segment, int lineIndex) {
-        segment.addEventListener("mouseenter", evt -> {
-            if (!state.enableHoverControls()) return;
-            cancelHideControlsTimer();
-            showLineControls((MouseEvent) evt, lineIndex, segment);
-        });
-        
-        segment.addEventListener("mouseleave", evt -> {
-            scheduleHideControls(evt);
+    @JSBody(params = {"target"}, script = "return target && target.closest ? target.closest('.page-copy-button') : null;")
+    private static native HTMLElement closestPageCopyButton(JSObject target);
+    
+    /**
+     * Page copy buttons of every page via one delegated click listener; the button resolves
+     * to its page through the registry. Debug builds also export a line's SVG on Alt+click.
+     */
+    private void bindPageActions() {
+        document.getBody().addEventListener("click", evt -> {
+            var button = closestPageCopyButton(evt.getTarget());
+            if (button != null) {
+                pageManager.registry().pageContaining(button).ifPresent(page -> copyPageText(page.index()));
+                return;
+            }
+            if (Log.DEBUG_ENABLED && ((MouseEvent) evt).getAltKey()) {
+                var segment = closestSegment(evt.getTarget());
+                if (segment == null) return;
+                addressing.addressOf(segment).ifPresent(address ->
+                    exportLineSVGToConsole(address.pageIndex(), address.lineIndex()));
+            }
         });
+        PerformanceMetrics.count(PerformanceMetrics.LISTENERS_ATTACHED);
+        MemoryAccounting.listeners(MemoryAccounting.DOCUMENT, 1);
     }
     
-    private void showLineControls(MouseEvent event, int lineIndex, HTMLElement segment) {
-        hideControls();
-        
-        var currentPageData = !allPagesData.isEmpty() ? allPagesData.get(0) : createEmptyOCRData();
-        if (lineIndex >= currentPageData.lines().size()) return;
-        
-        var controls = createFloatingControls();
-        var copyButton = createCopyButton(lineIndex);
-        controls.appendChild(copyButton);
-        
-        positionControlsWithinElement(controls, segment, "line");
-        document.getBody().appendChild(controls);
+    private Optional<LineData> lineAt(DocumentAddressing.Address address) {
+        var pageData = pageDataByIndex.get(address.pageIndex());
+        if (pageData == null) return Optional.empty();
+        var lines = pageData.lines();
+        return address.lineIndex() < lines.size() ? Optional.of(lines.get(address.lineIndex())) : Optional.empty();
     }
     
-    private HTMLElement createCopyButton(int lineIndex) {
-        var copyButton = (HTMLButtonElement) document.createElement("button");
-        copyButton.setInnerHTML("📋"); // Copy icon
-        copyButton.setTitle("Copy line " + (lineIndex + 1));
-        
-        // Apply styles using text blocks (JDK 15+)
-        var buttonStyle = """
-            background: none;
-            border: none;
-            color: white;
-            cursor: pointer;
-            font-size: 12px;
-            padding: 2px 4px;
-            border-radius: 2px;
-            """;
-        copyButton.getStyle().setCssText(buttonStyle);
-        
-        copyButton.addEventListener("click", evt -> copyLineText(lineIndex));
-        copyButton.addEventListener("mouseenter", evt -> 
-            copyButton.getStyle().setProperty("background", "rgba(255, 255, 255, 0.2)"));
-        copyButton.addEventListener("mouseleave", evt -> 
-            copyButton.getStyle().setProperty("background", "none"));
-        
-        return copyButton;
+    private void showLineControls(DocumentAddressing.Address address) {
+        if (lineAt(address).isEmpty()) {
+            hideControls();
+            return;
+        }
+        
+        // Cached geometry and a pooled widget: a lookup and a transform write, no layout.
+        // An unmeasured page is measured next frame, then this runs again if still hovered
+        var segment = hoveredSegment;
+        Runnable retry = () -> {
+            if (hoveredSegment == segment && state.enableHoverControls()) showLineControls(address);
+        };
+        segmentGeometry.lineBox(address.pageIndex(), address.lineIndex(), retry).ifPresentOrElse(
+            box -> OverlayLayer.showLineControls(box.right(), box.top(), box.height(),
+                "Copy line " + (address.lineIndex() + 1) + " of page " + address.displayNumber(),
+                () -> copyLineText(address)),
+            this::hideControls);
     }
     
     // Text extraction and clipboard methods moved to TextUtilities - using static imports
     
-    private void copyLineText(int lineIndex) {
-        var currentPageData = !allPagesData.isEmpty() ? allPagesData.get(0) : createEmptyOCRData();
-        if (lineIndex >= currentPageData.lines().size()) return;
-        copyLineTextWithNotification(currentPageData.lines().get(lineIndex));
+    private void copyLineText(DocumentAddressing.Address address) {
+        lineAt(address).ifPresent(line -> copyLineTextWithNotification(line));
     }
     
-    private void copyPageText() {
-        var currentPageData = !allPagesData.isEmpty() ? allPagesData.get(0) : createEmptyOCRData();
-        copyPageTextWithNotification(currentPageData.lines());
+    private void copyPageText(int pageIndex) {
+        var pageData = pageDataByIndex.get(pageIndex);
+        if (pageData != null) copyPageTextWithNotification(pageData.lines());
     }
     
-    @JSBody(params = {"text"}, script = """
-        navigator.clipboard.writeText(text).then(function() {
-            console.log('Copied to clipboard');
-        }).catch(function(err) {
-            console.error('Failed to copy: ', err);
-        });
-        """)
-    private static native void copyToClipboard(String text);
-    
-    
-    private HTMLElement createSVGSection() {
-        debug("Creating SVG section...");
-        var section = document.querySelector("section.win11OneOcrPage");
-        var ocrContent = document.querySelector(".ocrContent");
-        if (section == null || ocrContent == null) {
-            debug("ERROR: Missing required elements for SVG section (section or .ocrContent)");
-            return null;
-        }
-        
-        var svgContainer = (HTMLElement) document.createElement("div");
-        svgContainer.setClassName("svg-content");
-        
-        var containerStyle = """
-            position: relative;
-            margin-top: 20px;
-            border-top: 2px solid #ddd;
-            padding: 20px;
-            background: #fafafa;
-            overflow: auto;
-            max-width: 100%;
-            """;
-        svgContainer.getStyle().setCssText(containerStyle);
-        
-        var svg = generateSVGFromVirtualDOM();
-        svgContainer.appendChild(svg);
-        
-        // Insert after ocrContent
-        ocrContent.getParentNode().insertBefore(svgContainer, ocrContent.getNextSibling());
-        debug("SVG section created and inserted into DOM");
-        
-        return svgContainer;
-    }
     
-    private HTMLElement generateSVGFromVirtualDOM() {
-        var currentPageData = !allPagesData.isEmpty() ? allPagesData.get(0) : createEmptyOCRData();
-        var metadata = currentPageData.metadata();
-        var svg = (HTMLElement)document.createElementNS("http://www.w3.org/2000/svg", "svg");
-        
-        svg.setAttribute("width", String.valueOf(metadata.imageWidth()));
-        svg.setAttribute("height", String.valueOf(metadata.imageHeight()));
-        svg.setAttribute("viewBox", "0 0 " + metadata.imageWidth() + " " + metadata.imageHeight());
-        
-        var svgStyle = """
-            border: 1px solid #ccc;
-            background: white;
-            width: 100%;
-            height: auto;
-            """;
-        svg.getStyle().setCssText(svgStyle);
-        
-        // Add SVG content using method chaining
-        addSVGStyles(svg);
-        addBackgroundLayer(svg);
-        addWordLayers(svg);
-        
-        return svg;
-    }
     
     private HTMLElement generateSVGFromPageData(OCRData pageData) {
         var metadata = pageData.metadata();
@@ -675,146 +755,118 @@ public class XHtmlOcrControls {
         svg.setAttribute("height", String.valueOf(metadata.imageHeight()));
         svg.setAttribute("viewBox", "0 0 " + metadata.imageWidth() + " " + metadata.imageHeight());
         
-        var svgStyle = """
-            border: 1px solid #ccc;
-            background: white;
-            width: 100%;
-            height: auto;
-            """;
-        svg.getStyle().setCssText(svgStyle);
-        
         // Add SVG content using method chaining
-        addSVGStyles(svg);
         addBackgroundLayer(svg, pageData);
         addWordLayers(svg, pageData);
         
         return svg;
     }
     
-    private void addSVGStyles(HTMLElement svg) {
-        var defs = document.createElementNS("http://www.w3.org/2000/svg", "defs");
-        var style = document.createElementNS("http://www.w3.org/2000/svg", "style");
-        
-        // Using text blocks for clean CSS
-        var cssContent = """
-            .line-box { fill: none; stroke: #000000; stroke-width: 0.8; stroke-dasharray: 4,2; }
-            .word-box-high { fill: none; stroke: #00aa00; stroke-width: 0.6; stroke-dasharray: 2,1; }
-            .word-box-med { fill: none; stroke: #ffaa00; stroke-width: 0.6; stroke-dasharray: 2,1; }
-            .word-box-low { fill: none; stroke: #ff0000; stroke-width: 0.6; stroke-dasharray: 2,1; }
-            .word-text { font-family: Arial, sans-serif; font-size: 12px; fill: #0066cc; font-weight: bold; }
-            .svg-layer { display: block; }
-            .svg-layer.hidden { display: none; }
-            """;
-        
-        style.setTextContent(cssContent);
-        defs.appendChild(style);
-        svg.appendChild(defs);
-    }
-    
     private void bindEventHandlers() {
-        debug("Binding event handlers for control toggles...");
-        var eventBindings = Map.of(
-            "toggle-line-boxes", (EventListener<Event>) evt -> 
-                state = state.withShowLineBoxes(((HTMLInputElement) evt.getTarget()).isChecked()),
-            "toggle-word-boxes", (EventListener<Event>) evt -> 
-                state = state.withShowWordBoxes(((HTMLInputElement) evt.getTarget()).isChecked()),
-            "toggle-xhtml-text", (EventListener<Event>) evt -> 
-                state = state.withShowXHTMLText(((HTMLInputElement) evt.getTarget()).isChecked()),
-            "toggle-svg-text", (EventListener<Event>) evt -> 
-                state = state.withShowSVGText(((HTMLInputElement) evt.getTarget()).isChecked()),
-            "toggle-hover-controls", (EventListener<Event>) evt -> 
-                state = state.withEnableHoverControls(((HTMLInputElement) evt.getTarget()).isChecked()),
-            "toggle-svg-section", (EventListener<Event>) evt -> 
-                state = state.withShowSVGSection(((HTMLInputElement) evt.getTarget()).isChecked()),
-            "toggle-svg-background", (EventListener<Event>) evt -> 
-                state = state.withShowSVGBackground(((HTMLInputElement) evt.getTarget()).isChecked())
+        if (Log.DEBUG_ENABLED) debug("Binding event handlers for control toggles...");
+        // Each toggle maps onto one ViewerState bit
+        var toggleFlags = Map.of(
+            "toggle-line-boxes", ViewerState.SHOW_LINE_BOXES,
+            "toggle-word-boxes", ViewerState.SHOW_WORD_BOXES,
+            "toggle-xhtml-text", ViewerState.SHOW_XHTML_TEXT,
+            "toggle-svg-text", ViewerState.SHOW_SVG_TEXT,
+            "toggle-hover-controls", ViewerState.ENABLE_HOVER_CONTROLS,
+            "toggle-svg-section", ViewerState.SHOW_SVG_SECTION,
+            "toggle-svg-background", ViewerState.SHOW_SVG_BACKGROUND
         );
         
-        eventBindings.forEach((id, listener) -> {
+        toggleFlags.forEach((id, flag) -> {
             var element = document.getElementById(id);
             if (element != null) {
-                debug("Bound event handler for: " + id);
+                if (Log.DEBUG_ENABLED) debug("Bound event handler for: " + id);
+                PerformanceMetrics.count(PerformanceMetrics.LISTENERS_ATTACHED);
+                MemoryAccounting.listeners(MemoryAccounting.DOCUMENT, 1);
                 element.addEventListener("change", e -> {
-                    debug("Toggle changed: " + id + " = " + ((HTMLInputElement) e.getTarget()).isChecked());
-                    listener.handleEvent(e);
-                    updateDisplay();
+                    var checked = ((HTMLInputElement) e.getTarget()).isChecked();
+                    if (Log.DEBUG_ENABLED) debug("Toggle changed: " + id + " = " + checked);
+                    var previous = state;
+                    state = state.with(flag, checked);
+                    stateStore.save(state);
+                    // Hover controls only gate listeners - no page needs repainting for them
+                    if ((state.changedBits(previous.flags()) & ViewerState.DISPLAY_BITS) != 0) {
+                        scheduleDisplayUpdate();
+                    }
                 });
             } else {
-                debug("WARNING: Element not found for binding: " + id);
+                Log.warn("TeaVM-OCRViewer", "Element not found for binding: " + id);
             }
         });
-        debug("Event handler binding completed");
+        if (Log.DEBUG_ENABLED) debug("Event handler binding completed");
+    }
+    
+    /**
+     * Schedule a display update for the next animation frame.
+     * Rapid toggle changes are coalesced into a single pass with the latest state,
+     * and bumping the generation stops any batch chain still running for an older state.
+     */
+    private void scheduleDisplayUpdate() {
+        displayGeneration++;
+        if (displayUpdateTask.isPending()) {
+            if (Log.DEBUG_ENABLED) debug("Display update already scheduled - coalescing (generation " + displayGeneration + ")");
+            return;
+        }
+        displayUpdateTask.nextFrame();
+    }
+    
+    /**
+     * Check whether a display pass started for the given generation is still current.
+     */
+    private boolean isCurrentDisplayGeneration(int generation) {
+        return generation == displayGeneration;
     }
     
     private void updateDisplay() {
-        debug("updateDisplay() called with state: showLineBoxes=" + state.showLineBoxes() + 
+        final int generation = displayGeneration;
+        final double displayStart = PerformanceMetrics.startStage("displayUpdate");
+        if (Log.DEBUG_ENABLED) debug("updateDisplay() called with state: showLineBoxes=" + state.showLineBoxes() + 
               ", showWordBoxes=" + state.showWordBoxes() + 
-              ", showXHTMLText=" + state.showXHTMLText() + ", showSVGSection=" + state.showSVGSection());
+              ", showXHTMLText=" + state.showXHTMLText() + ", showSVGSection=" + state.showSVGSection() +
+              " (generation " + generation + ")");
         
-        // Update ALL pages - get all section elements
-        var sections = document.querySelectorAll("section.win11OneOcrPage");
-        debug("Found " + sections.getLength() + " page sections to update");
+        // Update ALL pages
+        var pages = pageManager.registry().pages();
+        if (Log.DEBUG_ENABLED) debug("Found " + pages.size() + " page sections to update");
+        ensurePageAppliedFlags(pages.size());
+        containment.measure(pages);
+        MemoryAccounting.setImagesVisible(state.showSVGSection() && state.showSVGBackground());
         
         // Show loading indicator for large documents
-        if (sections.getLength() > 50) {
-            showLoadingIndicator("Processing " + sections.getLength() + " pages...");
+        if (pages.size() > 50) {
+            showLoadingIndicator("Processing " + pages.size() + " pages...");
             
             // Small delay to ensure loading indicator appears before processing
-            org.teavm.jso.browser.Window.setTimeout(() -> {
-                processAllPagesWithProgress(sections, () -> {
-                    hideLoadingIndicator();
-                    debug("updateDisplay() completed for all pages");
-                });
-            }, 50); // 50ms delay
+            Scheduler.after(50, () -> {
+                if (!isCurrentDisplayGeneration(generation)) {
+                    if (Log.DEBUG_ENABLED) debug("updateDisplay() generation " + generation + " superseded before start");
+                    return;
+                }
+                displayBatcher.run(pages.size(), i -> updateDisplayForPage(pages.get(i)),
+                    () -> !isCurrentDisplayGeneration(generation),
+                    done -> updateProgress(Math.round((done * 100.0) / pages.size())), () -> {
+                        PerformanceMetrics.endStage("displayUpdate", displayStart);
+                        hideLoadingIndicator();
+                        if (Log.DEBUG_ENABLED) debug("updateDisplay() completed for all pages");
+                    });
+            }); // 50ms delay
         } else {
             // Small documents - process immediately
-            for (int pageIndex = 0; pageIndex < sections.getLength(); pageIndex++) {
-                var section = (HTMLElement) sections.get(pageIndex);
-                updateDisplayForPage(section, pageIndex + 1);
-            }
-            debug("updateDisplay() completed for all pages");
+            pages.forEach(this::updateDisplayForPage);
+            MutationQueue.flush();
+            PerformanceMetrics.endStage("displayUpdate", displayStart);
+            if (Log.DEBUG_ENABLED) debug("updateDisplay() completed for all pages");
         }
     }
     
     /**
-     * Process all pages (used with loading indicator).
-     */
-    private void processAllPages(NodeList sections) {
-        processPagesBatch(sections, 0, sections.getLength(), null);
-    }
-    
-    /**
-     * Process all pages with progress updates and completion callback.
-     */
-    private void processAllPagesWithProgress(NodeList sections, Runnable onComplete) {
-        processPagesBatch(sections, 0, sections.getLength(), onComplete);
-    }
-    
-    /**
-     * Process pages in small batches with progress updates.
+     * Overall progress for a batched init step spanning [from, to] percent.
      */
-    private void processPagesBatch(NodeList sections, int startIndex, int totalPages, Runnable onComplete) {
-        final int batchSize = 10; // Process 10 pages per batch
-        int endIndex = Math.min(startIndex + batchSize, totalPages);
-        
-        // Process current batch
-        for (int i = startIndex; i < endIndex; i++) {
-            var section = (HTMLElement) sections.get(i);
-            updateDisplayForPage(section, i + 1);
-        }
-        
-        // Update progress
-        var progress = Math.round((endIndex * 100.0) / totalPages);
-        updateProgress(progress);
-        
-        // Continue with next batch or finish
-        if (endIndex < totalPages) {
-            org.teavm.jso.browser.Window.setTimeout(() -> {
-                processPagesBatch(sections, endIndex, totalPages, onComplete);
-            }, 1); // Very small delay to allow UI update
-        } else if (onComplete != null) {
-            onComplete.run();
-        }
+    private static long stepProgress(int from, int to, int done, int total) {
+        return total > 0 ? Math.round(from + (to - from) * (double) done / total) : to;
     }
     
     /**
@@ -834,33 +886,19 @@ public class XHtmlOcrControls {
         indicator.setId("loading-indicator");
         
         // Create circular progress SVG
-        var progressHtml = "<div style='display: flex; align-items: center; gap: 12px;'>" +
-                          "<svg width='32' height='32' style='transform: rotate(-90deg);'>" +
+        var progressHtml = "<div class='loading-body'>" +
+                          "<svg class='loading-ring' width='32' height='32'>" +
                           "<circle cx='16' cy='16' r='12' fill='none' stroke='rgba(255,255,255,0.3)' stroke-width='3'/>" +
                           "<circle id='progress-circle' cx='16' cy='16' r='12' fill='none' stroke='#4CAF50' stroke-width='3' " +
                           "stroke-dasharray='75.4' stroke-dashoffset='75.4' stroke-linecap='round'/>" +
                           "</svg>" +
-                          "<div style='display: flex; flex-direction: column; align-items: flex-start;'>" +
-                          "<div class='loading-message' style='font-size: 14px; font-weight: 500;'>" + message + "</div>" +
-                          "<div id='progress-text' style='font-size: 12px; opacity: 0.8; margin-top: 2px;'>0%</div>" +
+                          "<div class='loading-text'>" +
+                          "<div class='loading-message'>" + message + "</div>" +
+                          "<div id='progress-text'>0%</div>" +
                           "</div>" +
                           "</div>";
         
         indicator.setInnerHTML(progressHtml);
-        
-        var style = "position: fixed; " +
-                   "top: 50%; " +
-                   "left: 50%; " +
-                   "transform: translate(-50%, -50%); " +
-                   "background: rgba(0, 0, 0, 0.85); " +
-                   "color: white; " +
-                   "padding: 20px 24px; " +
-                   "border-radius: 8px; " +
-                   "z-index: 9999; " +
-                   "font-family: -apple-system, BlinkMacSystemFont, 'Segoe UI', Roboto, sans-serif; " +
-                   "box-shadow: 0 4px 12px rgba(0, 0, 0, 0.3);";
-        
-        indicator.getStyle().setCssText(style);
         document.getBody().appendChild(indicator);
     }
     
@@ -889,36 +927,100 @@ public class XHtmlOcrControls {
         }
     }
     
-    private void updateDisplayForPage(HTMLElement pageSection, int pageNumber) {
-        debug("Updating display for page " + pageNumber);
+    /**
+     * Make sure there is one applied-flags slot per page section.
+     * Pages added since the last pass start as NEVER_APPLIED and get a full update.
+     */
+    private void ensurePageAppliedFlags(int pageCount) {
+        if (pageAppliedFlags.length == pageCount) return;
+        var previous = pageAppliedFlags;
+        pageAppliedFlags = Arrays.copyOf(previous, pageCount);
+        for (int i = previous.length; i < pageCount; i++) {
+            pageAppliedFlags[i] = NEVER_APPLIED;
+        }
+    }
+    
+    /**
+     * Update a page for the current state, touching only layers whose state bits flipped
+     * since this page was last updated. Toggling word boxes never touches line boxes or background.
+     */
+    private void updateDisplayForPage(DocumentRegistry.PageElements page) {
+        var pageIndex = page.index();
+        var pageNumber = page.displayNumber();
+        var applied = pageIndex < pageAppliedFlags.length ? pageAppliedFlags[pageIndex] : NEVER_APPLIED;
+        var changed = applied == NEVER_APPLIED
+            ? ViewerState.DISPLAY_BITS
+            : state.changedBits(applied) & ViewerState.DISPLAY_BITS;
+        
+        if (changed == 0) {
+            return;
+        }
+        if (Log.DEBUG_ENABLED) debug("Updating display for page " + pageNumber + " (changed bits: " + changed + ")");
+        
+        // Decided now, written in the queue's write phase
+        var target = state;
+        MutationQueue.write(() -> applyDisplayChanges(page, changed, target));
+        if (ViewerState.changed(changed, ViewerState.SHOW_SVG_SECTION)) {
+            // Placeholder height depends on whether the SVG section is shown
+            var pageData = pageDataByIndex.get(pageIndex);
+            if (pageData != null) containment.apply(page, pageData.metadata(), target.showSVGSection());
+        }
+        
+        if (pageIndex < pageAppliedFlags.length) {
+            pageAppliedFlags[pageIndex] = target.flags();
+        }
+    }
+    
+    /**
+     * Re-estimate every page's placeholder size after the rendered width changed.
+     */
+    private void reapplyContainment() {
+        containment.applyAll(pageManager.registry().pages(), pageDataByIndex, state.showSVGSection());
+    }
+    
+    private void applyDisplayChanges(DocumentRegistry.PageElements page, int changed, ViewerState target) {
+        var pageSection = page.section();
+        var pageNumber = page.displayNumber();
+        var pageStart = PerformanceMetrics.now();
+        // Class and layer toggles can move segments without resizing the section
+        segmentGeometry.invalidatePage(page.index());
         
-        // Update line boxes within this specific page
-        var segments = pageSection.querySelectorAll("segment");
-        for (int i = 0; i < segments.getLength(); i++) {
-            var segment = (HTMLElement) segments.get(i);
-            updateElementVisibility(segment, state.showLineBoxes(), "show-line-boxes");
+        if (ViewerState.changed(changed, ViewerState.SHOW_LINE_BOXES)) {
+            for (var segment : page.segments()) {
+                updateElementVisibility(segment, target.showLineBoxes(), "show-line-boxes");
+            }
+            updateSVGLayerVisibilityForPage(page, "svg-line-boxes", target.showLineBoxes());
         }
-        debug("Updated " + segments.getLength() + " segments on page " + pageNumber);
-        
-        // Update page-level display options
-        updateElementVisibility(pageSection, state.showWordBoxes(), "show-word-boxes");
-        updateElementVisibility(pageSection, !state.showXHTMLText(), "hide-text");
-        
-        // Update SVG layers within this page
-        updateSVGLayerVisibilityForPage(pageSection, "svg-background-layer", state.showSVGBackground());
-        updateSVGLayerVisibilityForPage(pageSection, "svg-line-boxes", state.showLineBoxes());
-        updateSVGLayerVisibilityForPage(pageSection, "svg-word-boxes", state.showWordBoxes());
-        updateSVGLayerVisibilityForPage(pageSection, "svg-text-layer", state.showSVGText());
-        
-        // Update SVG section visibility for this page
-        var svgContainer = pageSection.querySelector(".svg-content");
-        if (svgContainer != null) {
-            String displayValue = state.showSVGSection() ? "block" : "none";
-            ((HTMLElement) svgContainer).getStyle().setProperty("display", displayValue);
-            debug("Page " + pageNumber + " SVG section visibility set to: " + displayValue);
-        } else {
-            debug("WARNING: No .svg-content found for page " + pageNumber);
+        
+        if (ViewerState.changed(changed, ViewerState.SHOW_WORD_BOXES)) {
+            updateElementVisibility(pageSection, target.showWordBoxes(), "show-word-boxes");
+            updateSVGLayerVisibilityForPage(page, "svg-word-boxes", target.showWordBoxes());
+        }
+        
+        if (ViewerState.changed(changed, ViewerState.SHOW_XHTML_TEXT)) {
+            updateElementVisibility(pageSection, !target.showXHTMLText(), "hide-text");
         }
+        
+        if (ViewerState.changed(changed, ViewerState.SHOW_SVG_BACKGROUND)) {
+            updateSVGLayerVisibilityForPage(page, "svg-background-layer", target.showSVGBackground());
+        }
+        
+        if (ViewerState.changed(changed, ViewerState.SHOW_SVG_TEXT)) {
+            updateSVGLayerVisibilityForPage(page, "svg-text-layer", target.showSVGText());
+        }
+        
+        if (ViewerState.changed(changed, ViewerState.SHOW_SVG_SECTION)) {
+            var svgContainer = page.svgContainer();
+            if (svgContainer.isPresent()) {
+                String displayValue = target.showSVGSection() ? "block" : "none";
+                svgContainer.get().getStyle().setProperty("display", displayValue);
+                if (Log.DEBUG_ENABLED) debug("Page " + pageNumber + " SVG section visibility set to: " + displayValue);
+            } else {
+                Log.warn("TeaVM-OCRViewer", "No .svg-content found for page " + pageNumber);
+            }
+        }
+        
+        PerformanceMetrics.endPage("displayUpdate", pageNumber, pageStart);
     }
     
     // updateElementVisibility moved to DomUtilities - using static import
@@ -934,8 +1036,9 @@ public class XHtmlOcrControls {
         }
     }
     
-    private void updateSVGLayerVisibilityForPage(HTMLElement pageSection, String layerId, boolean visible) {
-        var layer = pageSection.querySelector("#" + layerId);
+    private void updateSVGLayerVisibilityForPage(DocumentRegistry.PageElements page, String layerId, boolean visible) {
+        // Layers live in the page's SVG container - no need to search the whole section
+        var layer = page.svgContainer().map(container -> container.querySelector("#" + layerId)).orElse(null);
         if (layer != null) {
             if (visible) {
                 ((HTMLElement) layer).getClassList().remove("hidden");
@@ -945,16 +1048,17 @@ public class XHtmlOcrControls {
         }
     }
     
-    private void exportLineSVGToConsole(int lineIndex) {
-        console("\n=== DEBUG: SVG Elements for Line " + (lineIndex + 1) + " ===");
+    private void exportLineSVGToConsole(int pageIndex, int lineIndex) {
+        console("\n=== DEBUG: SVG Elements for Page " + displayNumber(pageIndex) + ", Line " + (lineIndex + 1) + " ===");
         
-        var currentPageData = !allPagesData.isEmpty() ? allPagesData.get(0) : createEmptyOCRData();
-        if (lineIndex >= currentPageData.lines().size()) {
+        var pageData = pageDataByIndex.get(pageIndex);
+        var lines = pageData != null ? pageData.lines() : List.<LineData>of();
+        if (lineIndex >= lines.size()) {
             console("No data for line " + (lineIndex + 1));
             return;
         }
         
-        var line = currentPageData.lines().get(lineIndex);
+        var line = lines.get(lineIndex);
         console("Line " + (lineIndex + 1) + " has " + line.words().size() + " words:");
         
         for (int i = 0; i < line.words().size(); i++) {
@@ -978,92 +1082,59 @@ public class XHtmlOcrControls {
     
     // Utility methods moved to static utility classes - using static imports
     
-    //@JSBody(params = {"message"}, script = "console.log(message);")
-    private static /*native*/ void console(String message){
+    private static void console(String message){
         System.out.println(message); // tea vm makes this as console.log by itself
     }
     
+    
     // Debug helper method
     private static void debug(String message) {
-        if (VERBOSE_DEBUG) {
-            System.out.println("[TeaVM-OCRViewer] " + message);
-            //console("[TeaVM-OCRViewer] " + message);
-        }
+        Log.debug("TeaVM-OCRViewer", message);
     }
     
-    // Timer implementation for TeaVM
+    // Grace period so the pointer can travel from the line onto its controls
     private void scheduleHideControls(Event event) {
-        if (hideControlsTimer != null) {
-            hideControlsTimer.cancel();
-        }
-        hideControlsTimer = new Timer();
-        hideControlsTimer.schedule(new TimerTask() {
-            @Override
-            public void run() {
-                hideControls();
-            }
-        }, 100);
+        hideControlsTask.after(100);
     }
     
     private void cancelHideControlsTimer() {
-        if (hideControlsTimer != null) {
-            hideControlsTimer.cancel();
-            hideControlsTimer = null;
-        }
+        hideControlsTask.cancel();
     }
     
     private void hideControls() {
-        var existing = document.getElementById("floating-controls");
-        if (existing != null) {
-            removeElement(existing);//existing.remove();
-        }
+        OverlayLayer.hideLineControls();
     }
     
     // Complete helper method implementations
     
     // UI creation methods moved to UIElementFactory - using static imports
     
-    private void updateStats() {
+    /**
+     * Fill the stats panel for one page; a no-op while that page is already shown.
+     */
+    private void updateStats(int pageIndex) {
+        if (pageIndex == statsPageIndex) return;
         var statsDiv = document.getElementById("ocr-stats");
-        if (statsDiv == null || allPagesData.isEmpty()) return;
+        var pageData = pageDataByIndex.get(pageIndex);
+        if (statsDiv == null || pageData == null) return;
+        statsPageIndex = pageIndex;
         
-        var currentPageData = allPagesData.get(0);
-        var meta = currentPageData.metadata();
-        var statsHtml = "<div>" + meta.totalLines() + " lines, " + meta.totalWords() + " words</div>" +
-                        "<div>Avg confidence: " + Math.round(meta.averageConfidence() * 1000.0) / 10.0 + "%</div>" +
-                        "<div>Page angle: " + Math.round(meta.angle() * 10.0) / 10.0 + "°</div>";
+        var stats = PageStatistics.of(pageData.data(), config);
+        var statsHtml = "<div>Page " + displayNumber(pageIndex) + ": " + stats.lines() + " lines, " + stats.words() + " words</div>" +
+                        "<div>Avg confidence: " + Math.round(stats.averageConfidence() * 1000.0) / 10.0 + "%</div>" +
+                        "<div>Page angle: " + Math.round(stats.angle() * 10.0) / 10.0 + "°</div>";
         
         ((HTMLElement) statsDiv).setInnerHTML(statsHtml);
     }
     
-    // UI positioning methods moved to NotificationUtilities - using static imports
-    
-    private void addPageCopyButton() {
-        var section = document.querySelector("section.win11OneOcrPage");
-        if (section == null) return;
-        
-        var copyBtn = (HTMLButtonElement) document.createElement("button");
-        copyBtn.setTextContent("Copy Page");
-        
-        var buttonStyle = """
-            position: absolute;
-            top: 10px;
-            right: 10px;
-            background: rgba(0, 0, 0, 0.8);
-            color: white;
-            border: 1px solid rgba(255, 255, 255, 0.3);
-            padding: 5px 10px;
-            border-radius: 4px;
-            cursor: pointer;
-            font-size: 11px;
-            z-index: 40;
-            """;
-        copyBtn.getStyle().setCssText(buttonStyle);
-        
-        copyBtn.addEventListener("click", evt -> copyPageText());
-        section.appendChild(copyBtn);
+    private int displayNumber(int pageIndex) {
+        return pageManager.registry().page(pageIndex)
+            .map(DocumentRegistry.PageElements::displayNumber)
+            .orElse(pageIndex + 1);
     }
     
+    // UI positioning methods moved to NotificationUtilities - using static imports
+    
     private void cleanupDOM() {
         // Remove existing control panel
         removeFromDocument(".control-panel");
@@ -1079,34 +1150,13 @@ public class XHtmlOcrControls {
         
         // Remove background image elements
         removeAllFromDocument(".background-image");
+        
+        // Removed SVG containers are viewer-owned, so the mutation observer ignores them
+        pageManager.registry().invalidate();
     }
     
     // DOM manipulation methods moved to DomUtilities - using static imports with global document
     
-    private Optional<Element> addBackgroundLayer(Element svg) {
-        var currentPageData = !allPagesData.isEmpty() ? allPagesData.get(0) : createEmptyOCRData();
-        currentPageData.backgroundImagePath().ifPresent(imagePath -> {
-            var bgGroup = document.createElementNS("http://www.w3.org/2000/svg", "g");
-            bgGroup.setAttribute("id", "svg-background-layer");
-            bgGroup.setAttribute("class", "svg-layer hidden");
-            
-            var bgImage = document.createElementNS("http://www.w3.org/2000/svg", "image");
-            bgImage.setAttribute("href", imagePath);
-            bgImage.setAttribute("x", "0");
-            bgImage.setAttribute("y", "0");
-            bgImage.setAttribute("width", String.valueOf(currentPageData.metadata().imageWidth()));
-            bgImage.setAttribute("height", String.valueOf(currentPageData.metadata().imageHeight()));
-            bgImage.setAttribute("preserveAspectRatio", "none");
-            bgImage.setAttribute("opacity", "1.0");
-            
-            bgGroup.appendChild(bgImage);
-            svg.appendChild(bgGroup);
-        });
-        
-        return Optional.of(svg);
-    }
-    
-    // Overloaded method that accepts specific page data
     private Optional<Element> addBackgroundLayer(Element svg, OCRData pageData) {
         pageData.backgroundImagePath().ifPresent(imagePath -> {
             var bgGroup = document.createElementNS("http://www.w3.org/2000/svg", "g");
@@ -1129,38 +1179,6 @@ public class XHtmlOcrControls {
         return Optional.of(svg);
     }
     
-    private Optional<Element> addWordLayers(Element svg) {
-        var currentPageData = !allPagesData.isEmpty() ? allPagesData.get(0) : createEmptyOCRData();
-        var metadata = currentPageData.metadata();
-        
-        // Create layer groups
-        var lineBoxGroup = document.createElementNS("http://www.w3.org/2000/svg", "g");
-        lineBoxGroup.setAttribute("id", "svg-line-boxes");
-        lineBoxGroup.setAttribute("class", "svg-layer hidden");
-        
-        var wordBoxGroup = document.createElementNS("http://www.w3.org/2000/svg", "g");
-        wordBoxGroup.setAttribute("id", "svg-word-boxes");
-        wordBoxGroup.setAttribute("class", "svg-layer hidden");
-        
-        var textGroup = document.createElementNS("http://www.w3.org/2000/svg", "g");
-        textGroup.setAttribute("id", "svg-text-layer");
-        textGroup.setAttribute("class", "svg-layer");
-        
-        // Process words using streams and modern Java features
-        currentPageData.lines().stream()
-            .flatMap(line -> IntStream.range(0, line.words().size())
-                .mapToObj(wordIndex -> new WordWithPosition(line, wordIndex, line.words().get(wordIndex))))
-            .filter(wp -> wp.word().boundingBox().isPresent())
-            .forEach(wp -> addWordToSVG(wp, wordBoxGroup, textGroup));
-        
-        svg.appendChild(lineBoxGroup);
-        svg.appendChild(wordBoxGroup);
-        svg.appendChild(textGroup);
-        
-        return Optional.of(svg);
-    }
-    
-    // Overloaded method that accepts specific page data
     private Optional<Element> addWordLayers(Element svg, OCRData pageData) {
         var metadata = pageData.metadata();
         
@@ -1207,14 +1225,6 @@ public class XHtmlOcrControls {
         // Create text element with Java-calculated positioning
         var text = createSVGTextElement(wp.word(), bbox, wp.line().id(), wp.wordIndex());
         
-        // Add click handler for word details
-        var group = (HTMLElement)document.createElementNS("http://www.w3.org/2000/svg", "g");
-        group.getStyle().setProperty("cursor", "pointer");
-        group.appendChild(polygon.cloneNode(true));
-        group.appendChild(text.cloneNode(true));
-        
-        group.addEventListener("click", evt -> showSVGWordDetails(wp.word(), (MouseEvent) evt));
-        
         wordBoxGroup.appendChild(polygon);
         textGroup.appendChild(text);
     }
@@ -0,0 +1,126 @@
+package xyz.jphil.win11_oneocr.xhtml_controls_js.core;
+
+import xyz.jphil.win11_oneocr.xhtml_controls_js.BoundingBox;
+import xyz.jphil.win11_oneocr.xhtml_controls_js.LineData;
+import xyz.jphil.win11_oneocr.xhtml_controls_js.Metadata;
+import xyz.jphil.win11_oneocr.xhtml_controls_js.OCRData;
+import xyz.jphil.win11_oneocr.xhtml_controls_js.WordData;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Converts an OcrPageSource into the OCRData model.
+ * Pure Java - runs unchanged in the browser (TeaVM) and on the JVM.
+ */
+public final class OcrPageParser {
+
+    private OcrPageParser() {
+        // Utility class - prevent instantiation
+    }
+
+    /**
+     * Parse page metadata from section attributes and every segment into a line.
+     */
+    public static OCRData parse(OcrPageSource page) {
+        var metadata = parseMetadata(page);
+        return new OCRData(metadata, parseLines(page), backgroundImagePath(metadata));
+    }
+
+    /**
+     * Page metadata from the section attributes alone - no segment or word is touched.
+     */
+    public static Metadata parseMetadata(OcrPageSource page) {
+        return new Metadata(
+            Optional.ofNullable(page.pageAttribute("srcName")).orElse("Unknown"),
+            parseInt(page.pageAttribute("imgWidth"), 800),
+            parseInt(page.pageAttribute("imgHeight"), 600),
+            parseDouble(page.pageAttribute("angle"), 0.0),
+            parseDouble(page.pageAttribute("averageConfidence"), 0.0),
+            parseInt(page.pageAttribute("ocrWordsCount"), 0),
+            parseInt(page.pageAttribute("ocrSegmentsCount"), 0)
+        );
+    }
+
+    /**
+     * Every segment of the page as a line.
+     */
+    public static List<LineData> parseLines(OcrPageSource page) {
+        var segmentCount = page.segmentCount();
+        var lines = new ArrayList<LineData>(segmentCount);
+        for (int lineIndex = 0; lineIndex < segmentCount; lineIndex++) {
+            lines.add(parseLine(page, lineIndex));
+        }
+        return lines;
+    }
+
+    /**
+     * The page image is named by the srcName attribute.
+     */
+    public static Optional<String> backgroundImagePath(Metadata metadata) {
+        return Optional.of(metadata.filename());
+    }
+
+    private static LineData parseLine(OcrPageSource page, int lineIndex) {
+        var wordCount = page.wordCount(lineIndex);
+        var words = new ArrayList<WordData>(wordCount);
+        for (int i = 0; i < wordCount; i++) {
+            var text = page.wordText(lineIndex, i);
+            words.add(new WordData(
+                text != null ? text.trim() : "",
+                parseDouble(page.wordAttribute(lineIndex, i, "p"), 0.0),
+                parseInt(page.wordAttribute(lineIndex, i, "i"), i),
+                parseBoundingBox(page.wordAttribute(lineIndex, i, "b"))
+            ));
+        }
+        return new LineData(lineIndex, Optional.empty(), words);
+    }
+
+    /**
+     * Parse integer with default fallback for null or malformed values.
+     */
+    public static int parseInt(String value, int defaultValue) {
+        try {
+            return value != null ? Integer.parseInt(value) : defaultValue;
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Parse double with default fallback for null or malformed values.
+     */
+    public static double parseDouble(String value, double defaultValue) {
+        try {
+            return value != null ? Double.parseDouble(value) : defaultValue;
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Parse bounding box from comma-separated coordinate string.
+     * Expects format: "x1,y1,x2,y2,x3,y3,x4,y4" (8 coordinates for polygon).
+     * Returns empty Optional if parsing fails or insufficient coordinates.
+     */
+    public static Optional<BoundingBox> parseBoundingBox(String boundingBoxStr) {
+        if (boundingBoxStr == null || boundingBoxStr.isBlank()) {
+            return Optional.empty();
+        }
+
+        try {
+            var coords = Arrays.stream(boundingBoxStr.split(","))
+                .mapToDouble(Double::parseDouble)
+                .toArray();
+
+            return coords.length >= 8 ?
+                Optional.of(new BoundingBox(coords[0], coords[1], coords[2], coords[3],
+                                          coords[4], coords[5], coords[6], coords[7])) :
+                Optional.empty();
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package xyz.jphil.win11_oneocr.xhtml_controls_js.core;
+
+/**
+ * Read-only view of one OCR page, independent of any DOM implementation.
+ * Accessor-style on purpose: lookups by (line, word) need no wrapper object per element,
+ * so the browser registry and an in-memory JVM tree can both implement it at no cost.
+ * Attribute accessors return null when the attribute is absent, like Element.getAttribute.
+ */
+public interface OcrPageSource {
+
+    /** Attribute of the page section (srcName, imgWidth, angle, ...). */
+    String pageAttribute(String name);
+
+    int segmentCount();
+
+    int wordCount(int lineIndex);
+
+    /** Attribute of a word (p, i, b). */
+    String wordAttribute(int lineIndex, int wordIndex, String name);
+
+    /** Raw text content of a word - untrimmed. */
+    String wordText(int lineIndex, int wordIndex);
+}
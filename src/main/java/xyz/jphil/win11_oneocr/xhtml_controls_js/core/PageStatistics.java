@@ -0,0 +1,43 @@
+package xyz.jphil.win11_oneocr.xhtml_controls_js.core;
+
+import xyz.jphil.win11_oneocr.xhtml_controls_js.ConfidenceLevel;
+import xyz.jphil.win11_oneocr.xhtml_controls_js.Config;
+import xyz.jphil.win11_oneocr.xhtml_controls_js.OCRData;
+
+/**
+ * Per-page statistics shown in the control panel, plus the confidence-level breakdown.
+ * Line and word totals come from the page metadata when present, else from the parsed lines.
+ */
+public record PageStatistics(
+    int lines,
+    int words,
+    double averageConfidence,
+    double angle,
+    int highWords,
+    int mediumWords,
+    int lowWords
+) {
+
+    public static PageStatistics of(OCRData data, Config config) {
+        int high = 0, medium = 0, low = 0, parsedWords = 0;
+        for (var line : data.lines()) {
+            for (var word : line.words()) {
+                parsedWords++;
+                switch (ConfidenceLevel.fromConfidence(word.confidence(), config)) {
+                    case HIGH -> high++;
+                    case MEDIUM -> medium++;
+                    case LOW -> low++;
+                }
+            }
+        }
+
+        var meta = data.metadata();
+        return new PageStatistics(
+            meta.totalLines() > 0 ? meta.totalLines() : data.lines().size(),
+            meta.totalWords() > 0 ? meta.totalWords() : parsedWords,
+            meta.averageConfidence(),
+            meta.angle(),
+            high, medium, low
+        );
+    }
+}
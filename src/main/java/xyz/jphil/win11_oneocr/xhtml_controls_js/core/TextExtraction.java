@@ -0,0 +1,49 @@
+package xyz.jphil.win11_oneocr.xhtml_controls_js.core;
+
+import xyz.jphil.win11_oneocr.xhtml_controls_js.LineData;
+
+import java.util.List;
+
+/**
+ * Plain-text extraction from parsed OCR lines.
+ */
+public final class TextExtraction {
+
+    private TextExtraction() {
+        // Utility class - prevent instantiation
+    }
+
+    /**
+     * Words of a line joined with single spaces.
+     */
+    public static String lineText(LineData line) {
+        return appendLineText(new StringBuilder(), line).toString();
+    }
+
+    /**
+     * One output line per OCR line.
+     */
+    public static String pageText(List<LineData> lines) {
+        return appendPageText(new StringBuilder(), lines).toString();
+    }
+
+    /**
+     * Append a page's text to out - no per-line intermediate strings.
+     */
+    public static StringBuilder appendPageText(StringBuilder out, List<LineData> lines) {
+        for (int i = 0; i < lines.size(); i++) {
+            if (i > 0) out.append('\n');
+            appendLineText(out, lines.get(i));
+        }
+        return out;
+    }
+
+    private static StringBuilder appendLineText(StringBuilder out, LineData line) {
+        var words = line.words();
+        for (int i = 0; i < words.size(); i++) {
+            if (i > 0) out.append(' ');
+            out.append(words.get(i).text());
+        }
+        return out;
+    }
+}
@@ -0,0 +1,22 @@
+package xyz.jphil.win11_oneocr.xhtml_controls_js.core;
+
+import xyz.jphil.win11_oneocr.xhtml_controls_js.BoundingBox;
+
+/**
+ * Position and font size of a word's SVG text overlay, derived from its bounding box.
+ * Values are rounded to one decimal, as written into the SVG attributes.
+ */
+public record TextPlacement(double x, double y, double fontSize) {
+
+    public static TextPlacement of(BoundingBox bbox) {
+        var boxHeight = bbox.height();
+        var fontSize = Math.max(8, Math.min(boxHeight * 0.7, 24));
+        var textX = bbox.minX() + 2;
+        var textY = bbox.minY() + (boxHeight * 0.75);
+        return new TextPlacement(round1(textX), round1(textY), round1(fontSize));
+    }
+
+    private static double round1(double value) {
+        return Math.round(value * 10) / 10.0;
+    }
+}
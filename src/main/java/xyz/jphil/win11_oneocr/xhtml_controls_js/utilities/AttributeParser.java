@@ -2,8 +2,8 @@ package xyz.jphil.win11_oneocr.xhtml_controls_js.utilities;
 
 import org.teavm.jso.dom.xml.Element;
 import xyz.jphil.win11_oneocr.xhtml_controls_js.BoundingBox;
+import xyz.jphil.win11_oneocr.xhtml_controls_js.core.OcrPageParser;
 
-import java.util.Arrays;
 import java.util.Optional;
 
 /**
@@ -21,12 +21,7 @@ public final class AttributeParser {
      * Handles null values and NumberFormatException gracefully.
      */
     public static int parseIntAttribute(Element element, String attr, int defaultValue) {
-        try {
-            var value = element.getAttribute(attr);
-            return value != null ? Integer.parseInt(value) : defaultValue;
-        } catch (NumberFormatException e) {
-            return defaultValue;
-        }
+        return OcrPageParser.parseInt(element.getAttribute(attr), defaultValue);
     }
     
     /**
@@ -34,12 +29,7 @@ public final class AttributeParser {
      * Handles null values and NumberFormatException gracefully.
      */
     public static double parseDoubleAttribute(Element element, String attr, double defaultValue) {
-        try {
-            var value = element.getAttribute(attr);
-            return value != null ? Double.parseDouble(value) : defaultValue;
-        } catch (NumberFormatException e) {
-            return defaultValue;
-        }
+        return OcrPageParser.parseDouble(element.getAttribute(attr), defaultValue);
     }
     
     /**
@@ -48,21 +38,6 @@ public final class AttributeParser {
      * Returns empty Optional if parsing fails or insufficient coordinates.
      */
     public static Optional<BoundingBox> parseBoundingBox(String boundingBoxStr) {
-        if (boundingBoxStr == null || boundingBoxStr.isBlank()) {
-            return Optional.empty();
-        }
-        
-        try {
-            var coords = Arrays.stream(boundingBoxStr.split(","))
-                .mapToDouble(Double::parseDouble)
-                .toArray();
-                
-            return coords.length >= 8 ? 
-                Optional.of(new BoundingBox(coords[0], coords[1], coords[2], coords[3],
-                                          coords[4], coords[5], coords[6], coords[7])) :
-                Optional.empty();
-        } catch (NumberFormatException e) {
-            return Optional.empty();
-        }
+        return OcrPageParser.parseBoundingBox(boundingBoxStr);
     }
 }
\ No newline at end of file
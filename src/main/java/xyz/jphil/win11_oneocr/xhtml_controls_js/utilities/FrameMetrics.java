@@ -0,0 +1,61 @@
+package xyz.jphil.win11_oneocr.xhtml_controls_js.utilities;
+
+import org.teavm.jso.browser.Window;
+
+/**
+ * Rendering timings for the instrumentation surface: frame-to-frame intervals while the
+ * document scrolls ("scrollFrame" samples) and the time from a start mark to the first
+ * frame painted after it ("initialPaint" stage). Compare runs with and without page
+ * containment through window.xhtmlOcrMetrics.snapshot().
+ */
+public final class FrameMetrics {
+
+    public static final String SCROLL_FRAME = "scrollFrame";
+    public static final String INITIAL_PAINT = "initialPaint";
+
+    // Sampling stops this long after the last scroll event
+    private static final double SCROLL_IDLE_MS = 200;
+
+    private static final Scheduler.Task frameSampler = new Scheduler.Task(FrameMetrics::sampleFrame);
+    private static double lastFrame = -1;
+    private static double lastScroll = 0;
+    private static boolean installed = false;
+
+    private FrameMetrics() {
+        // Utility class - prevent instantiation
+    }
+
+    /**
+     * Start sampling scroll frames. Safe to call more than once.
+     */
+    public static void install() {
+        if (installed) return;
+        installed = true;
+        Window.current().addEventListener("scroll", evt -> {
+            lastScroll = PerformanceMetrics.now();
+            if (!frameSampler.isPending()) {
+                lastFrame = -1;
+                frameSampler.nextFrame();
+            }
+        });
+    }
+
+    /**
+     * Record the initialPaint stage once the next frame has been painted.
+     * A timeout queued from an animation frame callback runs after that frame's paint.
+     */
+    public static void markPaintedSince(double startTime) {
+        Scheduler.nextFrame(() -> Scheduler.after(0, () -> PerformanceMetrics.endStage(INITIAL_PAINT, startTime)));
+    }
+
+    private static void sampleFrame() {
+        var now = PerformanceMetrics.now();
+        if (lastFrame >= 0) {
+            PerformanceMetrics.sample(SCROLL_FRAME, now - lastFrame);
+        }
+        lastFrame = now;
+        if (now - lastScroll < SCROLL_IDLE_MS) {
+            frameSampler.nextFrame();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package xyz.jphil.win11_oneocr.xhtml_controls_js.utilities;
+
+/**
+ * Leveled logging with a compile-time ceiling.
+ * COMPILED_LEVEL is a constant, so javac folds the *_ENABLED flags and drops every
+ * guarded site above it - TeaVM never sees the call or its string concatenation.
+ * Guard hot-path sites at the call: {@code if (Log.DEBUG_ENABLED) debug("..." + value);}
+ * Raise COMPILED_LEVEL to DEBUG or TRACE for a diagnostic build; setLevel() can lower
+ * the runtime level further but never above what was compiled in.
+ */
+public final class Log {
+
+    public static final int ERROR = 0;
+    public static final int WARN = 1;
+    public static final int INFO = 2;
+    public static final int DEBUG = 3;
+    public static final int TRACE = 4;
+
+    // Production ceiling - debug and trace sites are compiled out
+    public static final int COMPILED_LEVEL = INFO;
+
+    public static final boolean INFO_ENABLED = COMPILED_LEVEL >= INFO;
+    public static final boolean DEBUG_ENABLED = COMPILED_LEVEL >= DEBUG;
+    public static final boolean TRACE_ENABLED = COMPILED_LEVEL >= TRACE;
+
+    private static int runtimeLevel = COMPILED_LEVEL;
+
+    private Log() {
+        // Utility class - prevent instantiation
+    }
+
+    /**
+     * Lower (or restore) the runtime level; clamped to COMPILED_LEVEL.
+     */
+    public static void setLevel(int level) {
+        runtimeLevel = Math.max(ERROR, Math.min(level, COMPILED_LEVEL));
+    }
+
+    public static boolean isEnabled(int level) {
+        return level <= runtimeLevel;
+    }
+
+    public static void error(String tag, String message) {
+        System.err.println("[" + tag + "] ERROR: " + message);
+    }
+
+    public static void warn(String tag, String message) {
+        if (isEnabled(WARN)) {
+            System.err.println("[" + tag + "] WARNING: " + message);
+        }
+    }
+
+    public static void info(String tag, String message) {
+        if (INFO_ENABLED && isEnabled(INFO)) {
+            System.out.println("[" + tag + "] " + message);
+        }
+    }
+
+    public static void debug(String tag, String message) {
+        if (DEBUG_ENABLED && isEnabled(DEBUG)) {
+            System.out.println("[" + tag + "] " + message);
+        }
+    }
+
+    public static void trace(String tag, String message) {
+        if (TRACE_ENABLED && isEnabled(TRACE)) {
+            System.out.println("[" + tag + "] " + message);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package xyz.jphil.win11_oneocr.xhtml_controls_js.utilities;
+
+import org.teavm.jso.JSBody;
+import org.teavm.jso.JSFunctor;
+import org.teavm.jso.JSObject;
+
+/**
+ * Counts main-thread long tasks (over 50 ms) reported by PerformanceObserver.
+ * Entries are delivered after the task ends, so a batch runner compares
+ * {@link #count()} before and after its previous batch to learn it overran.
+ * Browsers without the longtask entry type simply never report any.
+ */
+public final class LongTaskWatchdog {
+
+    public static final String LONG_TASKS = "longTasks";
+
+    private static int count = 0;
+    private static boolean installed = false;
+
+    private LongTaskWatchdog() {
+        // Utility class - prevent instantiation
+    }
+
+    /**
+     * Start observing. Safe to call more than once.
+     */
+    public static void install() {
+        if (installed) return;
+        installed = true;
+        if (!observeLongTasks(LongTaskWatchdog::onLongTask)) {
+            Log.info("LongTaskWatchdog", "longtask entries not supported - batch sizing uses batch timings only");
+        }
+    }
+
+    public static int count() {
+        return count;
+    }
+
+    private static void onLongTask(double duration) {
+        count++;
+        PerformanceMetrics.count(LONG_TASKS);
+        PerformanceMetrics.sample(LONG_TASKS, duration);
+    }
+
+    @JSFunctor
+    interface LongTaskCallback extends JSObject {
+        void onLongTask(double duration);
+    }
+
+    @JSBody(params = {"callback"}, script = """
+        if (typeof PerformanceObserver === 'undefined' ||
+            !(PerformanceObserver.supportedEntryTypes || []).includes('longtask')) return false;
+        try {
+            new PerformanceObserver(function(list) {
+                list.getEntries().forEach(function(entry) { callback(entry.duration); });
+            }).observe({type: 'longtask', buffered: false});
+            return true;
+        } catch (e) {
+            return false;
+        }
+        """)
+    private static native boolean observeLongTasks(LongTaskCallback callback);
+}
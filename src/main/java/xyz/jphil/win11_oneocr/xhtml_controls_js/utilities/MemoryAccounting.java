@@ -0,0 +1,305 @@
+package xyz.jphil.win11_oneocr.xhtml_controls_js.utilities;
+
+import org.teavm.jso.JSBody;
+import org.teavm.jso.JSFunctor;
+import org.teavm.jso.JSObject;
+import org.teavm.jso.browser.Window;
+import org.teavm.jso.dom.html.HTMLElement;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Accounts for what the viewer allocates, per page and per subsystem.
+ * Counts are exact (words, lines, SVG nodes, control nodes, listeners, image pixels);
+ * bytes are estimates from per-object costs, since browsers expose no per-object sizes.
+ * Decoded image pixels only count while the SVG background layer is visible.
+ * window.xhtmlOcrMemory offers snapshot(), setBudget(bytes) and showReadout(on);
+ * the readout also turns on with "ocr-memory" in the page URL query.
+ */
+public final class MemoryAccounting {
+
+    // Ballpark per-object costs in bytes (JS heap + DOM) - for budgets and comparisons, not exact sizes
+    public static final int WORD_BYTES = 160;        // WordData, bounding box, Optional wrappers
+    public static final int LINE_BYTES = 64;
+    public static final int CHAR_BYTES = 2;
+    public static final int SVG_NODE_BYTES = 400;
+    public static final int CONTROL_NODE_BYTES = 400;
+    public static final int LISTENER_BYTES = 120;    // listener entry plus retained closure
+    public static final int PIXEL_BYTES = 4;         // decoded RGBA
+
+    // Listeners and nodes that belong to no single page (toolbar, search, delegated hover)
+    public static final int DOCUMENT = -1;
+
+    public enum Subsystem {
+        PAGE_DATA("pageData"), SVG("svg"), CONTROLS("controls"), LISTENERS("listeners"), IMAGES("images");
+
+        private final String key;
+
+        Subsystem(String key) {
+            this.key = key;
+        }
+
+        public String key() { return key; }
+    }
+
+    private static final List<PageUsage> pages = new ArrayList<>();
+    private static final PageUsage document = new PageUsage();
+    // Running totals over document and pages - budget checks stay O(1) per record
+    private static final PageUsage totals = new PageUsage();
+    private static boolean imagesVisible = false;
+    private static double budgetBytes = 0;
+    private static boolean overBudget = false;
+    private static final List<Runnable> overBudgetListeners = new ArrayList<>();
+    private static boolean published = false;
+    private static HTMLElement readout;
+    private static final Scheduler.Task readoutRefresh = new Scheduler.Task(MemoryAccounting::refreshReadout);
+
+    private MemoryAccounting() {
+        // Utility class - prevent instantiation
+    }
+
+    /**
+     * Per-page counts. Parse and SVG counts are replaced when a page is rebuilt; controls and listeners accumulate.
+     */
+    private static final class PageUsage {
+        long words, lines, textChars, svgNodes, controlNodes, listeners, imagePixels;
+
+        double bytes(Subsystem subsystem) {
+            return switch (subsystem) {
+                case PAGE_DATA -> (double) words * WORD_BYTES + (double) lines * LINE_BYTES + (double) textChars * CHAR_BYTES;
+                case SVG -> (double) svgNodes * SVG_NODE_BYTES;
+                case CONTROLS -> (double) controlNodes * CONTROL_NODE_BYTES;
+                case LISTENERS -> (double) listeners * LISTENER_BYTES;
+                case IMAGES -> imagesVisible ? (double) imagePixels * PIXEL_BYTES : 0;
+            };
+        }
+
+        double bytes() {
+            var total = 0.0;
+            for (var subsystem : Subsystem.values()) {
+                total += bytes(subsystem);
+            }
+            return total;
+        }
+    }
+
+    public static void pageData(int pageIndex, int words, int lines, int textChars) {
+        var usage = usage(pageIndex);
+        totals.words += words - usage.words;
+        totals.lines += lines - usage.lines;
+        totals.textChars += textChars - usage.textChars;
+        usage.words = words;
+        usage.lines = lines;
+        usage.textChars = textChars;
+        checkBudget(Subsystem.PAGE_DATA);
+    }
+
+    public static void svg(int pageIndex, int nodes, long imagePixels) {
+        var usage = usage(pageIndex);
+        totals.svgNodes += nodes - usage.svgNodes;
+        totals.imagePixels += imagePixels - usage.imagePixels;
+        usage.svgNodes = nodes;
+        usage.imagePixels = imagePixels;
+        checkBudget(Subsystem.SVG);
+    }
+
+    public static void controls(int pageIndex, int nodes) {
+        usage(pageIndex).controlNodes += nodes;
+        totals.controlNodes += nodes;
+        checkBudget(Subsystem.CONTROLS);
+    }
+
+    public static void listeners(int pageIndex, int count) {
+        usage(pageIndex).listeners += count;
+        totals.listeners += count;
+        checkBudget(Subsystem.LISTENERS);
+    }
+
+    public static void setImagesVisible(boolean visible) {
+        imagesVisible = visible;
+        if (visible) checkBudget(Subsystem.IMAGES);
+    }
+
+    /**
+     * Budget in bytes; 0 disables budget checks.
+     */
+    public static void setBudget(double bytes) {
+        budgetBytes = Math.max(0, bytes);
+        overBudget = false;
+        checkBudget(null);
+    }
+
+    public static double budget() {
+        return budgetBytes;
+    }
+
+    /**
+     * Runs on every crossing of the budget, after the warning - for eviction.
+     */
+    public static void addOverBudgetListener(Runnable listener) {
+        overBudgetListeners.add(listener);
+    }
+
+    public static double totalBytes() {
+        return totals.bytes();
+    }
+
+    public static double bytes(Subsystem subsystem) {
+        return totals.bytes(subsystem);
+    }
+
+    private static PageUsage usage(int pageIndex) {
+        if (pageIndex < 0) return document;
+        while (pages.size() <= pageIndex) {
+            pages.add(new PageUsage());
+        }
+        return pages.get(pageIndex);
+    }
+
+    // Warn once per crossing, naming the subsystem whose allocation crossed and the largest one
+    private static void checkBudget(Subsystem trigger) {
+        if (budgetBytes <= 0) return;
+        var total = totalBytes();
+        if (total <= budgetBytes) {
+            overBudget = false;
+            return;
+        }
+        if (overBudget) return;
+        overBudget = true;
+
+        var largest = Subsystem.PAGE_DATA;
+        for (var subsystem : Subsystem.values()) {
+            if (bytes(subsystem) > bytes(largest)) largest = subsystem;
+        }
+        Log.warn("MemoryAccounting", "Estimated " + megabytes(total) + " MB exceeds budget " + megabytes(budgetBytes) +
+            " MB" + (trigger != null ? " after " + trigger.key() + " allocation" : "") +
+            "; largest subsystem: " + largest.key() + " (" + megabytes(bytes(largest)) + " MB)");
+        overBudgetListeners.forEach(Runnable::run);
+    }
+
+    /**
+     * Expose window.xhtmlOcrMemory and honour the URL readout flag. Safe to call more than once.
+     */
+    public static void publish() {
+        if (published) return;
+        published = true;
+        installGlobal(MemoryAccounting::snapshotJson, MemoryAccounting::setBudget, MemoryAccounting::showReadout);
+        if (isReadoutRequested()) {
+            showReadout(true);
+        }
+    }
+
+    /**
+     * Totals per subsystem and counts per page as JSON.
+     */
+    public static String snapshotJson() {
+        var json = new StringBuilder(256 + pages.size() * 96);
+        json.append("{\"estimatedBytes\":").append(Math.round(totalBytes()))
+            .append(",\"budgetBytes\":").append(Math.round(budgetBytes))
+            .append(",\"overBudget\":").append(overBudget)
+            .append(",\"heapUsedBytes\":").append(Math.round(usedHeapBytes()))
+            .append(",\"subsystems\":{");
+        var first = true;
+        for (var subsystem : Subsystem.values()) {
+            if (!first) json.append(',');
+            first = false;
+            json.append('"').append(subsystem.key()).append("\":").append(Math.round(bytes(subsystem)));
+        }
+        json.append("},\"document\":");
+        appendUsage(json, -1, document);
+        json.append(",\"pages\":[");
+        for (int i = 0; i < pages.size(); i++) {
+            if (i > 0) json.append(',');
+            appendUsage(json, i, pages.get(i));
+        }
+        return json.append("]}").toString();
+    }
+
+    private static void appendUsage(StringBuilder json, int pageIndex, PageUsage usage) {
+        json.append("{\"pageIndex\":").append(pageIndex)
+            .append(",\"words\":").append(usage.words)
+            .append(",\"lines\":").append(usage.lines)
+            .append(",\"svgNodes\":").append(usage.svgNodes)
+            .append(",\"controlNodes\":").append(usage.controlNodes)
+            .append(",\"listeners\":").append(usage.listeners)
+            .append(",\"imagePixels\":").append(usage.imagePixels)
+            .append(",\"bytes\":").append(Math.round(usage.bytes()))
+            .append('}');
+    }
+
+    /**
+     * Toggle the fixed on-page readout, refreshed once a second while shown.
+     */
+    public static void showReadout(boolean show) {
+        if (!show) {
+            readoutRefresh.cancel();
+            if (readout != null) {
+                DomUtilities.removeElement(readout);
+                readout = null;
+            }
+            return;
+        }
+        if (readout != null) return;
+
+        ViewerStyles.install();
+        var document = Window.current().getDocument();
+        readout = (HTMLElement) document.createElement("div");
+        readout.setId("ocr-memory-readout");
+        document.getBody().appendChild(readout);
+        refreshReadout();
+    }
+
+    private static void refreshReadout() {
+        if (readout == null) return;
+        var text = new StringBuilder("≈ ").append(megabytes(totalBytes())).append(" MB");
+        if (budgetBytes > 0) text.append(" / budget ").append(megabytes(budgetBytes)).append(" MB");
+        var heap = usedHeapBytes();
+        if (heap > 0) text.append("  (JS heap ").append(megabytes(heap)).append(" MB)");
+        for (var subsystem : Subsystem.values()) {
+            text.append('\n').append(subsystem.key()).append(": ").append(megabytes(bytes(subsystem))).append(" MB");
+        }
+        readout.setTextContent(text.toString());
+        if (overBudget) {
+            readout.getClassList().add("over-budget");
+        } else {
+            readout.getClassList().remove("over-budget");
+        }
+        readoutRefresh.after(1000);
+    }
+
+    private static double megabytes(double bytes) {
+        return Math.round(bytes / 104857.6) / 10.0;
+    }
+
+    @JSFunctor
+    interface SnapshotSource extends JSObject {
+        String snapshot();
+    }
+
+    @JSFunctor
+    interface BudgetSetter extends JSObject {
+        void setBudget(double bytes);
+    }
+
+    @JSFunctor
+    interface ReadoutToggle extends JSObject {
+        void showReadout(boolean show);
+    }
+
+    // performance.memory is Chrome-only; 0 elsewhere
+    @JSBody(script = "return (typeof performance !== 'undefined' && performance.memory) ? performance.memory.usedJSHeapSize : 0;")
+    private static native double usedHeapBytes();
+
+    @JSBody(script = "return typeof location !== 'undefined' && /[?&]ocr-memory\\b/.test(location.search);")
+    private static native boolean isReadoutRequested();
+
+    @JSBody(params = {"source", "budget", "readout"}, script = """
+        window.xhtmlOcrMemory = {
+            snapshot: function() { return JSON.parse(source()); },
+            setBudget: function(bytes) { budget(+bytes || 0); },
+            showReadout: function(on) { readout(on !== false); }
+        };
+        """)
+    private static native void installGlobal(SnapshotSource source, BudgetSetter budget, ReadoutToggle readout);
+}
@@ -0,0 +1,140 @@
+package xyz.jphil.win11_oneocr.xhtml_controls_js.utilities;
+
+import org.teavm.jso.browser.Window;
+import org.teavm.jso.dom.xml.DocumentFragment;
+import org.teavm.jso.dom.xml.Node;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Central queue for DOM writes of the decoration pipeline.
+ * Passes do their reads (parsing, lookups, geometry) immediately and only enqueue writes,
+ * so reads never run against a layout dirtied by their own pass; the writes then land
+ * together in one write phase. Consecutive inserts into the same place share a DocumentFragment,
+ * so a run of appends is one insertion into the live tree.
+ * Batched passes flush at the end of every batch (so batch timings include the writes),
+ * other passes at their end; anything left is flushed on the next animation frame.
+ */
+public final class MutationQueue {
+
+    public static final String FLUSHES = "mutationFlushes";
+    public static final String WRITES = "mutationWrites";
+
+    private static final List<Op> ops = new ArrayList<>();
+    private static final Scheduler.Task frameFlush = new Scheduler.Task(MutationQueue::flush);
+    private static boolean flushing = false;
+
+    private MutationQueue() {
+        // Utility class - prevent instantiation
+    }
+
+    /**
+     * One queued write: an action, or an insertion whose nodes collect in a fragment.
+     */
+    private static final class Op {
+        final Runnable action;
+        final Node parent;       // append target, or null with an after-reference
+        final Node after;        // insert after this node
+        final DocumentFragment fragment;
+
+        Op(Runnable action) {
+            this(action, null, null, null);
+        }
+
+        Op(Runnable action, Node parent, Node after, DocumentFragment fragment) {
+            this.action = action;
+            this.parent = parent;
+            this.after = after;
+            this.fragment = fragment;
+        }
+
+        boolean inserts(Node parent, Node after) {
+            return fragment != null && this.parent == parent && this.after == after;
+        }
+    }
+
+    /**
+     * Queue a write - attribute, class or style changes on live elements.
+     */
+    public static void write(Runnable action) {
+        enqueue(new Op(action));
+    }
+
+    /**
+     * Queue appending a node to a live parent.
+     */
+    public static void append(Node parent, Node child) {
+        insert(parent, null, child);
+    }
+
+    /**
+     * Queue inserting a node right after a live reference node; the position is resolved at flush time.
+     */
+    public static void insertAfter(Node reference, Node node) {
+        insert(null, reference, node);
+    }
+
+    private static void insert(Node parent, Node after, Node node) {
+        if (!ops.isEmpty()) {
+            var last = ops.get(ops.size() - 1);
+            if (last.inserts(parent, after)) {
+                last.fragment.appendChild(node);
+                return;
+            }
+        }
+        var fragment = Window.current().getDocument().createDocumentFragment();
+        fragment.appendChild(node);
+        enqueue(new Op(null, parent, after, fragment));
+    }
+
+    private static void enqueue(Op op) {
+        if (flushing) {
+            // Writes issued by a write run in the same phase
+            apply(op);
+            return;
+        }
+        ops.add(op);
+        frameFlush.nextFrame();
+    }
+
+    public static int pending() {
+        return ops.size();
+    }
+
+    /**
+     * Run every queued write in order. Cheap when nothing is queued.
+     */
+    public static void flush() {
+        frameFlush.cancel();
+        if (ops.isEmpty() || flushing) return;
+
+        flushing = true;
+        try {
+            for (int i = 0; i < ops.size(); i++) {
+                apply(ops.get(i));
+            }
+            PerformanceMetrics.add(WRITES, ops.size());
+            PerformanceMetrics.count(FLUSHES);
+            if (Log.TRACE_ENABLED) Log.trace("MutationQueue", "Flushed " + ops.size() + " writes");
+        } finally {
+            ops.clear();
+            flushing = false;
+        }
+    }
+
+    private static void apply(Op op) {
+        if (op.action != null) {
+            op.action.run();
+        } else if (op.parent != null) {
+            op.parent.appendChild(op.fragment);
+        } else {
+            var parent = op.after.getParentNode();
+            if (parent != null) {
+                parent.insertBefore(op.fragment, op.after.getNextSibling());
+            } else {
+                Log.warn("MutationQueue", "Insert reference was detached before flush - dropping insertion");
+            }
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package xyz.jphil.win11_oneocr.xhtml_controls_js.utilities;
+
+import org.teavm.jso.browser.Window;
+import org.teavm.jso.dom.html.HTMLDocument;
+import org.teavm.jso.dom.html.HTMLElement;
+import xyz.jphil.win11_oneocr.xhtml_controls_js.WordData;
+
+/**
+ * Pooled overlay for transient widgets: line controls, notifications and word details.
+ * Each widget type is one element, created on first use, then only moved (transform),
+ * re-texted and shown or hidden - hovering allocates no nodes. Styling lives in {@link ViewerStyles}.
+ * The layer sits at the document origin, so anchored widgets use document coordinates and
+ * stay attached to their line while scrolling; notification and word details are viewport-fixed.
+ */
+public final class OverlayLayer {
+
+    private static final int NOTIFICATION_MS = 2000;
+    private static final int WORD_DETAILS_MS = 3000;
+
+    private static HTMLElement layer;
+
+    private static HTMLElement lineControls;
+    private static HTMLElement lineCopyButton;
+    private static Runnable lineCopyAction;
+
+    private static HTMLElement notification;
+    private static final Scheduler.Task hideNotification = new Scheduler.Task(() -> hide(notification));
+
+    private static HTMLElement wordDetails;
+    private static HTMLElement wordText;
+    private static HTMLElement wordConfidence;
+    private static HTMLElement wordIndex;
+    private static HTMLElement wordBounds;
+    private static final Scheduler.Task hideWordDetails = new Scheduler.Task(() -> hide(wordDetails));
+
+    private OverlayLayer() {
+        // Utility class - prevent instantiation
+    }
+
+    /**
+     * Show the copy control at the right edge of a line box (document coordinates), vertically centred.
+     * The action runs when the button is clicked, until the controls are shown for another line.
+     * Only writes - callers pass cached geometry so hovering never forces layout.
+     */
+    public static void showLineControls(double right, double top, double height, String title, Runnable onCopy) {
+        ensureLineControls();
+        lineCopyAction = onCopy;
+        if (!title.equals(lineCopyButton.getTitle())) {
+            lineCopyButton.setTitle(title);
+        }
+
+        moveTo(lineControls, right - 25, top + (height / 2) - 10);
+        show(lineControls);
+    }
+
+    public static void hideLineControls() {
+        if (lineControls != null) {
+            hide(lineControls);
+            lineCopyAction = null;
+        }
+    }
+
+    /**
+     * Centred message, hidden after 2 seconds; a new message restarts the timer.
+     */
+    public static void showNotification(String message) {
+        if (notification == null) {
+            notification = createWidget("ocr-notification");
+        }
+        notification.setTextContent(message);
+        show(notification);
+
+        hideNotification.after(NOTIFICATION_MS);
+    }
+
+    /**
+     * Word text, confidence, index and bounds next to the pointer, hidden after 3 seconds.
+     */
+    public static void showWordDetails(WordData word, double clientX, double clientY) {
+        ensureWordDetails();
+        wordText.setTextContent("\"" + word.text() + "\"");
+        wordConfidence.setTextContent(Math.round(word.confidence() * 1000.0) / 10.0 + "%");
+        wordIndex.setTextContent(String.valueOf(word.index()));
+        wordBounds.setTextContent(word.boundingBox()
+            .map(bbox -> Math.round(bbox.x1() * 10.0) / 10.0 + "," + Math.round(bbox.y1() * 10.0) / 10.0 + " to " +
+                         Math.round(bbox.x2() * 10.0) / 10.0 + "," + Math.round(bbox.y2() * 10.0) / 10.0)
+            .orElse("N/A"));
+
+        moveTo(wordDetails, clientX + 10, clientY + 10);
+        show(wordDetails);
+
+        hideWordDetails.after(WORD_DETAILS_MS);
+    }
+
+    private static void ensureLineControls() {
+        if (lineControls != null) return;
+        lineControls = createWidget("floating-controls");
+
+        lineCopyButton = (HTMLElement) getDocument().createElement("button");
+        lineCopyButton.setTextContent("📋");
+        lineCopyButton.addEventListener("click", evt -> {
+            if (lineCopyAction != null) lineCopyAction.run();
+        });
+        lineControls.appendChild(lineCopyButton);
+    }
+
+    private static void ensureWordDetails() {
+        if (wordDetails != null) return;
+        wordDetails = createWidget("ocr-word-details");
+        wordText = addDetailRow("Word:");
+        wordConfidence = addDetailRow("Confidence:");
+        wordIndex = addDetailRow("Index:");
+        wordBounds = addDetailRow("Bounds:");
+    }
+
+    // "<div><strong>Label</strong> value</div>" - returns the value span
+    private static HTMLElement addDetailRow(String label) {
+        var document = getDocument();
+        var row = (HTMLElement) document.createElement("div");
+        var strong = (HTMLElement) document.createElement("strong");
+        strong.setTextContent(label + " ");
+        var value = (HTMLElement) document.createElement("span");
+        row.appendChild(strong);
+        row.appendChild(value);
+        wordDetails.appendChild(row);
+        return value;
+    }
+
+    // Hidden until shown; look and placement come from ViewerStyles
+    private static HTMLElement createWidget(String id) {
+        var widget = (HTMLElement) getDocument().createElement("div");
+        widget.setId(id);
+        widget.setClassName("overlay-widget");
+        layer().appendChild(widget);
+        return widget;
+    }
+
+    // Re-attached if a cleanup pass removed it from the document
+    private static HTMLElement layer() {
+        if (layer == null) {
+            ViewerStyles.install();
+            layer = (HTMLElement) getDocument().createElement("div");
+            layer.setId("ocr-overlay-layer");
+        }
+        if (layer.getParentNode() == null) {
+            getDocument().getBody().appendChild(layer);
+        }
+        return layer;
+    }
+
+    private static void moveTo(HTMLElement widget, double x, double y) {
+        layer(); // keeps the layer attached
+        widget.getStyle().setProperty("transform", "translate(" + Math.round(x) + "px, " + Math.round(y) + "px)");
+    }
+
+    private static void show(HTMLElement widget) {
+        widget.getClassList().add("visible");
+    }
+
+    private static void hide(HTMLElement widget) {
+        widget.getClassList().remove("visible");
+    }
+
+    private static HTMLDocument getDocument() {
+        return Window.current().getDocument();
+    }
+}
@@ -0,0 +1,230 @@
+package xyz.jphil.win11_oneocr.xhtml_controls_js.utilities;
+
+import org.teavm.jso.JSBody;
+import org.teavm.jso.JSFunctor;
+import org.teavm.jso.JSObject;
+import org.teavm.jso.browser.Performance;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Pipeline instrumentation: User Timing marks/measures plus scrapeable counters and percentiles.
+ * Stage boundaries emit "ocr:stage:start"/"ocr:stage:end" marks and an "ocr:stage" measure;
+ * per-page work emits "ocr:stage:page-N" measures until {@link #endPageMeasures} (end of initialization).
+ * All durations are also sampled in memory, keeping the most recent samples per name, and
+ * window.xhtmlOcrMetrics.snapshot() returns counters and p50/p90/p99 timings as a plain object.
+ * Non-duration samples (e.g. chosen batch sizes) share the timings section under their own names.
+ * Calls never throw - User Timing being unavailable only loses the timeline entries.
+ */
+public final class PerformanceMetrics {
+
+    // Counter names - shared so regression scripts can rely on them
+    public static final String PAGES_PROCESSED = "pagesProcessed";
+    public static final String WORDS_PARSED = "wordsParsed";
+    public static final String DOM_NODES_CREATED = "domNodesCreated";
+    public static final String LISTENERS_ATTACHED = "listenersAttached";
+    public static final String PAGE_FAILURES = "pageFailures";
+
+    private static final String PREFIX = "ocr:";
+
+    private static final Map<String, Integer> counters = new TreeMap<>();
+    private static final Map<String, Samples> timings = new TreeMap<>();
+    private static boolean userTimingAvailable = isUserTimingAvailable();
+    private static boolean published = false;
+    private static boolean pageMeasures = true;
+
+    private PerformanceMetrics() {
+        // Utility class - prevent instantiation
+    }
+
+    /**
+     * Begin a pipeline stage. Returns the start time to pass to {@link #endStage}.
+     */
+    public static double startStage(String stage) {
+        mark(PREFIX + stage + ":start");
+        return Performance.now();
+    }
+
+    /**
+     * End a pipeline stage: end mark, stage measure and a timing sample.
+     */
+    public static void endStage(String stage, double startTime) {
+        var end = Performance.now();
+        mark(PREFIX + stage + ":end");
+        measure(PREFIX + stage, startTime, end);
+        record(stage, end - startTime);
+    }
+
+    /**
+     * Per-page work within a stage, sampled as "stage.perPage"; one measure per page until endPageMeasures().
+     */
+    public static void endPage(String stage, int pageNumber, double startTime) {
+        var end = Performance.now();
+        if (pageMeasures) {
+            measure(PREFIX + stage + ":page-" + pageNumber, startTime, end);
+        }
+        record(stage + ".perPage", end - startTime);
+    }
+
+    /**
+     * Stop emitting per-page measures - afterwards every toggle would add one timeline entry per page.
+     */
+    public static void endPageMeasures() {
+        pageMeasures = false;
+    }
+
+    public static double now() {
+        return Performance.now();
+    }
+
+    public static void count(String counter) {
+        add(counter, 1);
+    }
+
+    public static void add(String counter, int delta) {
+        counters.put(counter, counter(counter) + delta);
+    }
+
+    /**
+     * Overwrite a counter - for gauges such as the latest batch size.
+     */
+    public static void set(String counter, int value) {
+        counters.put(counter, value);
+    }
+
+    /**
+     * Record an arbitrary sample, reported with percentiles like the stage timings.
+     */
+    public static void sample(String name, double value) {
+        record(name, value);
+    }
+
+    public static int counter(String counter) {
+        return counters.getOrDefault(counter, 0);
+    }
+
+    /**
+     * Expose window.xhtmlOcrMetrics. Safe to call more than once.
+     */
+    public static void publish() {
+        if (published) return;
+        published = true;
+        installGlobal(PerformanceMetrics::snapshotJson);
+    }
+
+    /**
+     * Current counters and timing percentiles as JSON.
+     */
+    public static String snapshotJson() {
+        var json = new StringBuilder("{\"counters\":{");
+        var first = true;
+        for (var entry : counters.entrySet()) {
+            if (!first) json.append(',');
+            first = false;
+            json.append('"').append(entry.getKey()).append("\":").append(entry.getValue());
+        }
+        json.append("},\"timings\":{");
+        first = true;
+        for (var entry : timings.entrySet()) {
+            if (!first) json.append(',');
+            first = false;
+            json.append('"').append(entry.getKey()).append("\":");
+            entry.getValue().appendJson(json);
+        }
+        return json.append("}}").toString();
+    }
+
+    private static void record(String name, double duration) {
+        timings.computeIfAbsent(name, key -> new Samples()).add(duration);
+    }
+
+    private static void mark(String name) {
+        if (userTimingAvailable) {
+            userTimingAvailable = performanceMark(name);
+        }
+    }
+
+    private static void measure(String name, double start, double end) {
+        if (userTimingAvailable) {
+            userTimingAvailable = performanceMeasure(name, start, end);
+        }
+    }
+
+    /**
+     * Duration samples in a ring of the most recent CAPACITY values; count and total cover all samples,
+     * percentiles the retained ones. Computed on snapshot only.
+     */
+    private static final class Samples {
+        private static final int CAPACITY = 4096;
+
+        private double[] values = new double[16];
+        private int size = 0;
+        private int next = 0; // oldest sample once full
+        private long count = 0;
+        private double total = 0;
+
+        void add(double value) {
+            if (size < CAPACITY) {
+                if (size == values.length) {
+                    values = Arrays.copyOf(values, Math.min(size * 2, CAPACITY));
+                }
+                values[size++] = value;
+            } else {
+                // Full - overwrite the oldest
+                values[next] = value;
+                next = (next + 1) % CAPACITY;
+            }
+            count++;
+            total += value;
+        }
+
+        void appendJson(StringBuilder json) {
+            var sorted = Arrays.copyOf(values, size);
+            Arrays.sort(sorted);
+            json.append("{\"count\":").append(count)
+                .append(",\"total\":").append(round(total))
+                .append(",\"p50\":").append(round(percentile(sorted, 0.50)))
+                .append(",\"p90\":").append(round(percentile(sorted, 0.90)))
+                .append(",\"p99\":").append(round(percentile(sorted, 0.99)))
+                .append(",\"max\":").append(round(size > 0 ? sorted[size - 1] : 0))
+                .append('}');
+        }
+
+        // Nearest-rank percentile
+        private static double percentile(double[] sorted, double p) {
+            if (sorted.length == 0) return 0;
+            var rank = (int) Math.ceil(p * sorted.length);
+            return sorted[Math.max(0, Math.min(sorted.length - 1, rank - 1))];
+        }
+
+        private static double round(double value) {
+            return Math.round(value * 1000.0) / 1000.0;
+        }
+    }
+
+    @JSFunctor
+    interface SnapshotSource extends JSObject {
+        String snapshot();
+    }
+
+    @JSBody(script = "return typeof performance !== 'undefined' && typeof performance.mark === 'function';")
+    private static native boolean isUserTimingAvailable();
+
+    @JSBody(params = {"name"}, script = "try { performance.mark(name); return true; } catch (e) { return false; }")
+    private static native boolean performanceMark(String name);
+
+    @JSBody(params = {"name", "start", "end"}, script = """
+        try { performance.measure(name, {start: start, end: end}); return true; } catch (e) { return false; }
+        """)
+    private static native boolean performanceMeasure(String name, double start, double end);
+
+    @JSBody(params = {"source"}, script = """
+        window.xhtmlOcrMetrics = {
+            snapshot: function() { return JSON.parse(source()); },
+            entries: function() { return performance.getEntriesByType('measure').filter(function(e) { return e.name.indexOf('ocr:') === 0; }); }
+        };
+        """)
+    private static native void installGlobal(SnapshotSource source);
+}
@@ -0,0 +1,89 @@
+package xyz.jphil.win11_oneocr.xhtml_controls_js.utilities;
+
+import org.teavm.jso.browser.AnimationFrameCallback;
+import org.teavm.jso.browser.TimerHandler;
+import org.teavm.jso.browser.Window;
+
+/**
+ * Delayed UI work on the browser's own setTimeout and requestAnimationFrame.
+ * Replaces java.util.Timer, whose TeaVM emulation drags thread and timer support into the bundle.
+ * A {@link Task} is a reusable, cancellable slot for one action: re-arming it cancels the
+ * pending run first, so debounce-style rescheduling costs one clearTimeout and one setTimeout.
+ */
+public final class Scheduler {
+
+    private Scheduler() {
+        // Utility class - prevent instantiation
+    }
+
+    /**
+     * Run once after the delay. The returned task can cancel it.
+     */
+    public static Task after(int delayMs, Runnable action) {
+        var task = new Task(action);
+        task.after(delayMs);
+        return task;
+    }
+
+    /**
+     * Run once before the next repaint. The returned task can cancel it.
+     */
+    public static Task nextFrame(Runnable action) {
+        var task = new Task(action);
+        task.nextFrame();
+        return task;
+    }
+
+    /**
+     * One action with at most one pending run, either a timeout or an animation frame.
+     */
+    public static final class Task {
+        private final Runnable action;
+        // Created once per task, not per schedule call
+        private final TimerHandler onTimeout = this::fire;
+        private final AnimationFrameCallback onFrame = timestamp -> fire();
+        private int timeoutId = -1;
+        private int frameId = -1;
+
+        public Task(Runnable action) {
+            this.action = action;
+        }
+
+        /**
+         * (Re)arm to run after the delay, replacing any pending run.
+         */
+        public void after(int delayMs) {
+            cancel();
+            timeoutId = Window.setTimeout(onTimeout, delayMs);
+        }
+
+        /**
+         * Arm to run before the next repaint. Calls while a run is pending coalesce into it.
+         */
+        public void nextFrame() {
+            if (isPending()) return;
+            frameId = Window.requestAnimationFrame(onFrame);
+        }
+
+        public void cancel() {
+            if (timeoutId >= 0) {
+                Window.clearTimeout(timeoutId);
+                timeoutId = -1;
+            }
+            if (frameId >= 0) {
+                Window.cancelAnimationFrame(frameId);
+                frameId = -1;
+            }
+        }
+
+        public boolean isPending() {
+            return timeoutId >= 0 || frameId >= 0;
+        }
+
+        private void fire() {
+            timeoutId = -1;
+            frameId = -1;
+            action.run();
+        }
+    }
+}
@@ -5,6 +5,7 @@ import org.teavm.jso.dom.html.HTMLDocument;
 import org.teavm.jso.dom.xml.Element;
 import xyz.jphil.win11_oneocr.xhtml_controls_js.BoundingBox;
 import xyz.jphil.win11_oneocr.xhtml_controls_js.WordData;
+import xyz.jphil.win11_oneocr.xhtml_controls_js.core.TextPlacement;
 
 /**
  * Provides utilities for creating SVG elements and text positioning.
@@ -22,16 +23,13 @@ public final class SvgUtilities {
      * positioning for optimal text placement, and confidence display.
      */
     public static Element createSVGTextElement(WordData word, BoundingBox bbox, int lineId, int wordIndex, HTMLDocument document) {
-        var boxHeight = bbox.height();
-        var fontSize = Math.max(8, Math.min(boxHeight * 0.7, 24));
-        var textX = bbox.minX() + 2;
-        var textY = bbox.minY() + (boxHeight * 0.75);
+        var placement = TextPlacement.of(bbox);
         
         var text = document.createElementNS("http://www.w3.org/2000/svg", "text");
-        text.setAttribute("x", String.valueOf(Math.round(textX * 10) / 10.0));
-        text.setAttribute("y", String.valueOf(Math.round(textY * 10) / 10.0));
+        text.setAttribute("x", String.valueOf(placement.x()));
+        text.setAttribute("y", String.valueOf(placement.y()));
         text.setAttribute("class", "word-text");
-        text.setAttribute("style", "font-size: " + Math.round(fontSize * 10) / 10.0 + "px;");
+        text.setAttribute("style", "font-size: " + placement.fontSize() + "px;");
         text.setAttribute("title", "Confidence: " + Math.round(word.confidence() * 1000) / 10.0 + "%");
         text.setTextContent(word.text());
         
@@ -2,9 +2,8 @@ package xyz.jphil.win11_oneocr.xhtml_controls_js.utilities;
 
 import org.teavm.jso.JSBody;
 import xyz.jphil.win11_oneocr.xhtml_controls_js.LineData;
-import xyz.jphil.win11_oneocr.xhtml_controls_js.WordData;
+import xyz.jphil.win11_oneocr.xhtml_controls_js.core.TextExtraction;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Provides text extraction and clipboard operations.
@@ -21,9 +20,7 @@ public final class TextUtilities {
      * Joins all word texts with spaces for natural reading.
      */
     public static String extractLineText(LineData line) {
-        return line.words().stream()
-            .map(WordData::text)
-            .collect(Collectors.joining(" "));
+        return TextExtraction.lineText(line);
     }
     
     /**
@@ -31,9 +28,7 @@ public final class TextUtilities {
      * Each line becomes a separate line in the output text.
      */
     public static String extractPageText(List<LineData> lines) {
-        return lines.stream()
-            .map(TextUtilities::extractLineText)
-            .collect(Collectors.joining("\n"));
+        return TextExtraction.pageText(lines);
     }
     
     /**
@@ -7,8 +7,8 @@ import org.teavm.jso.dom.html.HTMLInputElement;
 import java.util.List;
 
 /**
- * Creates HTML UI elements with styling.
- * Deep module that handles DOM element creation and styling complexity.
+ * Creates HTML UI elements.
+ * Elements get class names and ids only - their rules live in {@link ViewerStyles}.
  */
 public final class UIElementFactory {
     
@@ -55,30 +55,9 @@ public final class UIElementFactory {
         controlBar.setClassName("control-bar sticky-pinned");
         controlBar.setId("top-control-bar");
         
-        // Sticky control bar styles - full width
-        var barStyle = "position: sticky; " +
-                      "top: 0; " +
-                      "left: 0; " +
-                      "right: 0; " +
-                      "width: 100%; " +
-                      "z-index: 1000; " +
-                      "background: linear-gradient(135deg, #2c3e50, #34495e); " +
-                      "color: white; " +
-                      "padding: 12px 20px; " +
-                      "border-bottom: 2px solid #3498db; " +
-                      "box-shadow: 0 2px 8px rgba(0,0,0,0.3); " +
-                      "display: flex; " +
-                      "flex-direction: column; " +
-                      "gap: 8px; " +
-                      "font-family: -apple-system, BlinkMacSystemFont, 'Segoe UI', Roboto, sans-serif; " +
-                      "font-size: 13px; " +
-                      "transition: all 0.3s ease; " +
-                      "box-sizing: border-box;";
-        controlBar.getStyle().setCssText(barStyle);
-        
         // Create single row with pin toggle + controls
         var controlsRow = (HTMLElement) getDocument().createElement("div");
-        controlsRow.getStyle().setCssText("display: flex; flex-wrap: wrap; align-items: center; gap: 12px; width: 100%;");
+        controlsRow.setClassName("control-bar-row");
         
         // Add pin toggle as first item in the controls row
         var pinToggle = createPinToggleButton();
@@ -86,7 +65,7 @@ public final class UIElementFactory {
         
         // Add a small separator after pin toggle
         var separator = (HTMLElement) getDocument().createElement("div");
-        separator.getStyle().setCssText("width: 1px; height: 20px; background: rgba(255,255,255,0.3); margin: 0 4px;");
+        separator.setClassName("control-bar-separator");
         controlsRow.appendChild(separator);
         
         // Add control groups in responsive layout
@@ -109,25 +88,9 @@ public final class UIElementFactory {
         pinButton.setInnerHTML("●"); // Filled circle for pinned/sticky
         pinButton.setTitle("Click to unpin (scroll with content)");
         
-        var buttonStyle = "background: rgba(52, 152, 219, 0.2); " +
-                         "border: 1px solid rgba(52, 152, 219, 0.5); " +
-                         "color: #3498db; " +
-                         "padding: 4px 8px; " +
-                         "border-radius: 4px; " +
-                         "cursor: pointer; " +
-                         "font-size: 14px; " +
-                         "transition: all 0.2s ease;";
-        pinButton.getStyle().setCssText(buttonStyle);
-        
         // Add pin/unpin toggle functionality
         pinButton.addEventListener("click", evt -> toggleControlBarPin());
         
-        // Hover effects
-        pinButton.addEventListener("mouseenter", evt -> 
-            pinButton.getStyle().setProperty("background", "rgba(52, 152, 219, 0.4)"));
-        pinButton.addEventListener("mouseleave", evt -> 
-            pinButton.getStyle().setProperty("background", "rgba(52, 152, 219, 0.2)"));
-        
         return pinButton;
     }
     
@@ -143,18 +106,14 @@ public final class UIElementFactory {
                 // Unpin: make it scroll with content
                 controlBar.getClassList().remove("sticky-pinned");
                 controlBar.getClassList().add("sticky-unpinned");
-                controlBar.getStyle().setProperty("position", "static");
                 pinButton.setInnerHTML("○"); // Hollow circle for unpinned
                 pinButton.setTitle("Click to pin (stay at top while scrolling)");
-                pinButton.getStyle().setProperty("color", "#f39c12"); // Orange for unpinned
             } else {
                 // Pin: make it stick to top
                 controlBar.getClassList().remove("sticky-unpinned");
                 controlBar.getClassList().add("sticky-pinned");
-                controlBar.getStyle().setProperty("position", "sticky");
                 pinButton.setInnerHTML("●"); // Filled circle for pinned/sticky
                 pinButton.setTitle("Click to unpin (scroll with content)");
-                pinButton.getStyle().setProperty("color", "#3498db");
             }
         }
     }
@@ -167,32 +126,15 @@ public final class UIElementFactory {
         group.setAttribute("for", config.id());
         group.setClassName("compact-control-group");
         
-        var groupStyle = "display: flex; " +
-                        "align-items: center; " +
-                        "gap: 6px; " +
-                        "padding: 2px 6px; " +
-                        "border-radius: 4px; " +
-                        "background: rgba(255,255,255,0.1); " +
-                        "transition: background 0.2s ease; " +
-                        "cursor: pointer; " +
-                        "user-select: none;";
-        group.getStyle().setCssText(groupStyle);
-        
         var labelText = (HTMLElement) getDocument().createElement("span");
         labelText.setTextContent(config.label());
-        labelText.getStyle().setCssText("font-size: 12px;");
+        labelText.setClassName("compact-control-label");
         
         var toggle = createCompactToggleSwitch(config.id(), config.defaultChecked());
         
         group.appendChild(labelText);
         group.appendChild(toggle);
         
-        // Hover effect
-        group.addEventListener("mouseenter", evt -> 
-            group.getStyle().setProperty("background", "rgba(255,255,255,0.15)"));
-        group.addEventListener("mouseleave", evt -> 
-            group.getStyle().setProperty("background", "rgba(255,255,255,0.1)"));
-        
         return group;
     }
     
@@ -203,38 +145,17 @@ public final class UIElementFactory {
         var toggleSwitch = (HTMLElement) getDocument().createElement("div");
         toggleSwitch.setClassName("compact-toggle-switch");
         
-        var switchStyle = "position: relative; " +
-                         "width: 32px; " +
-                         "height: 16px; " +
-                         "background: rgba(255,255,255,0.2); " +
-                         "border-radius: 16px; " +
-                         "transition: background 0.3s ease; " +
-                         "cursor: pointer;";
-        toggleSwitch.getStyle().setCssText(switchStyle);
-        
         var input = (HTMLInputElement) getDocument().createElement("input");
         input.setType("checkbox");
         input.setId(id);
         input.setChecked(checked);
-        input.getStyle().setCssText("position: absolute; opacity: 0; pointer-events: none;");
         
         var slider = (HTMLElement) getDocument().createElement("span");
         slider.setClassName("compact-slider");
-        var translateX = checked ? "16px" : "0px";
-        var sliderStyle = "position: absolute; " +
-                         "top: 2px; " +
-                         "left: 2px; " +
-                         "width: 12px; " +
-                         "height: 12px; " +
-                         "background: white; " +
-                         "border-radius: 50%; " +
-                         "transition: transform 0.3s ease; " +
-                         "transform: translateX(" + translateX + ");";
-        slider.getStyle().setCssText(sliderStyle);
-        
-        // Update styles based on checked state
+        
+        // Track and knob follow the "checked" class
         if (checked) {
-            toggleSwitch.getStyle().setProperty("background", "#3498db");
+            toggleSwitch.getClassList().add("checked");
         }
         
         toggleSwitch.appendChild(input);
@@ -242,19 +163,87 @@ public final class UIElementFactory {
         
         // Add change event listener to update visual state when input changes
         input.addEventListener("change", evt -> {
-            boolean isChecked = input.isChecked();
-            if (isChecked) {
-                toggleSwitch.getStyle().setProperty("background", "#3498db");
-                slider.getStyle().setProperty("transform", "translateX(16px)");
+            if (input.isChecked()) {
+                toggleSwitch.getClassList().add("checked");
             } else {
-                toggleSwitch.getStyle().setProperty("background", "rgba(255,255,255,0.2)");
-                slider.getStyle().setProperty("transform", "translateX(0px)");
+                toggleSwitch.getClassList().remove("checked");
             }
         });
         
         return toggleSwitch;
     }
 
+    /**
+     * Create search row for the control bar.
+     * Contains the query input, a hit counter and a results dropdown (hidden until there are hits).
+     */
+    public static HTMLElement createSearchBar() {
+        var searchRow = (HTMLElement) getDocument().createElement("div");
+        searchRow.setId("ocr-search-bar");
+
+        var input = (HTMLInputElement) getDocument().createElement("input");
+        input.setType("search");
+        input.setId("ocr-search-input");
+        input.setAttribute("placeholder", "Search OCR text... (~word for fuzzy)");
+        input.setAttribute("autocomplete", "off");
+
+        var status = (HTMLElement) getDocument().createElement("span");
+        status.setId("ocr-search-status");
+
+        var results = (HTMLElement) getDocument().createElement("div");
+        results.setId("ocr-search-results");
+
+        searchRow.appendChild(input);
+        searchRow.appendChild(status);
+        searchRow.appendChild(results);
+
+        return searchRow;
+    }
+
+    /**
+     * Create the whole-document text buttons (copy all, download .txt).
+     */
+    public static HTMLElement createExportControls() {
+        var group = (HTMLElement) getDocument().createElement("div");
+        group.setId("ocr-export-controls");
+
+        var copyButton = (HTMLElement) getDocument().createElement("button");
+        copyButton.setId("ocr-copy-all-btn");
+        copyButton.setClassName("ocr-export-button");
+        copyButton.setTextContent("📋 Copy all");
+        copyButton.setTitle("Copy the text of every page");
+
+        var downloadButton = (HTMLElement) getDocument().createElement("button");
+        downloadButton.setId("ocr-download-txt-btn");
+        downloadButton.setClassName("ocr-export-button");
+        downloadButton.setTextContent("💾 .txt");
+        downloadButton.setTitle("Download the text of every page");
+
+        group.appendChild(copyButton);
+        group.appendChild(downloadButton);
+        return group;
+    }
+
+    /**
+     * Create single search result row.
+     * Text is set via textContent - OCR text is never interpreted as HTML.
+     */
+    public static HTMLElement createSearchResultItem(String location, String snippet) {
+        var item = (HTMLElement) getDocument().createElement("div");
+        item.setClassName("ocr-search-result");
+
+        var locationSpan = (HTMLElement) getDocument().createElement("strong");
+        locationSpan.setTextContent(location + "  ");
+
+        var snippetSpan = (HTMLElement) getDocument().createElement("span");
+        snippetSpan.setTextContent(snippet);
+
+        item.appendChild(locationSpan);
+        item.appendChild(snippetSpan);
+
+        return item;
+    }
+
     /**
      * Create confidence legend with standard confidence levels.
      * Returns fully configured legend element with high/medium/low confidence indicators.
@@ -314,27 +303,6 @@ public final class UIElementFactory {
         return stats;
     }
     
-    /**
-     * Create floating controls container with standard styling.
-     */
-    public static HTMLElement createFloatingControls() {
-        var controls = (HTMLElement) getDocument().createElement("div");
-        controls.setId("floating-controls");
-        
-        var controlsStyle = "position: absolute; " +
-                           "background: rgba(0, 0, 0, 0.9); " +
-                           "color: white; " +
-                           "padding: 5px 10px; " +
-                           "border-radius: 4px; " +
-                           "font-size: 11px; " +
-                           "z-index: 1000; " +
-                           "white-space: nowrap; " +
-                           "pointer-events: auto;";
-        controls.getStyle().setCssText(controlsStyle);
-        
-        return controls;
-    }
-    
     /**
      * Create control group with label and toggle switch.
      */
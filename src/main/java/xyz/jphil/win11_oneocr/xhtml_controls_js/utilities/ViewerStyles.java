@@ -0,0 +1,194 @@
+package xyz.jphil.win11_oneocr.xhtml_controls_js.utilities;
+
+import org.teavm.jso.JSBody;
+import org.teavm.jso.browser.Window;
+import org.teavm.jso.dom.html.HTMLElement;
+
+/**
+ * The viewer's one stylesheet. Elements carry class names (or their fixed ids) only;
+ * the rules are parsed once and adopted through document.adoptedStyleSheets, falling back
+ * to a single style element where constructable stylesheets are unsupported.
+ * Inline styles remain only for per-element values (SVG text size, toggled display).
+ */
+public final class ViewerStyles {
+
+    public static final String CSS = """
+        .control-bar {
+            position: sticky; top: 0; left: 0; right: 0; width: 100%; z-index: 1000;
+            background: linear-gradient(135deg, #2c3e50, #34495e); color: white;
+            padding: 12px 20px; border-bottom: 2px solid #3498db; box-shadow: 0 2px 8px rgba(0,0,0,0.3);
+            display: flex; flex-direction: column; gap: 8px;
+            font-family: -apple-system, BlinkMacSystemFont, 'Segoe UI', Roboto, sans-serif; font-size: 13px; transition: all 0.3s ease; box-sizing: border-box;
+        }
+        .control-bar.sticky-unpinned { position: static; }
+        .control-bar-row { display: flex; flex-wrap: wrap; align-items: center; gap: 12px; width: 100%; }
+        .control-bar-separator { width: 1px; height: 20px; background: rgba(255,255,255,0.3); margin: 0 4px; }
+        #pin-toggle-btn {
+            background: rgba(52, 152, 219, 0.2); border: 1px solid rgba(52, 152, 219, 0.5); color: #3498db;
+            padding: 4px 8px; border-radius: 4px; cursor: pointer; font-size: 14px; transition: all 0.2s ease;
+        }
+        #pin-toggle-btn:hover { background: rgba(52, 152, 219, 0.4); }
+        .control-bar.sticky-unpinned #pin-toggle-btn { color: #f39c12; }
+        .compact-control-group {
+            display: flex; align-items: center; gap: 6px; padding: 2px 6px; border-radius: 4px;
+            background: rgba(255,255,255,0.1); transition: background 0.2s ease; cursor: pointer; user-select: none;
+        }
+        .compact-control-group:hover { background: rgba(255,255,255,0.15); }
+        .compact-control-label { font-size: 12px; }
+        .compact-toggle-switch {
+            position: relative; width: 32px; height: 16px; background: rgba(255,255,255,0.2);
+            border-radius: 16px; transition: background 0.3s ease; cursor: pointer;
+        }
+        .compact-toggle-switch.checked { background: #3498db; }
+        .compact-toggle-switch > input { position: absolute; opacity: 0; pointer-events: none; }
+        .compact-slider {
+            position: absolute; top: 2px; left: 2px; width: 12px; height: 12px; background: white;
+            border-radius: 50%; transition: transform 0.3s ease; transform: translateX(0px);
+        }
+        .compact-toggle-switch.checked > .compact-slider { transform: translateX(16px); }
+
+        #ocr-search-bar { position: relative; display: flex; align-items: center; gap: 10px; width: 100%; }
+        #ocr-search-input {
+            flex: 0 1 280px; padding: 4px 8px; border: 1px solid rgba(255,255,255,0.3); border-radius: 4px;
+            background: rgba(255,255,255,0.1); color: white; font-size: 12px;
+        }
+        #ocr-search-status { font-size: 12px; opacity: 0.8; }
+        #ocr-search-results {
+            display: none; position: absolute; top: 100%; left: 0; margin-top: 4px; width: 480px;
+            max-height: 320px; overflow-y: auto; background: rgba(0, 0, 0, 0.9); border-radius: 4px;
+            box-shadow: 0 4px 12px rgba(0, 0, 0, 0.3); font-size: 12px; z-index: 1001;
+        }
+        .ocr-search-result { padding: 4px 10px; cursor: pointer; white-space: nowrap; overflow: hidden; text-overflow: ellipsis; }
+        .ocr-search-result:hover { background: rgba(255,255,255,0.15); }
+        #ocr-export-controls { display: flex; gap: 6px; margin-left: auto; }
+        .ocr-export-button {
+            background: rgba(52, 152, 219, 0.2); border: 1px solid rgba(52, 152, 219, 0.5); color: white;
+            padding: 3px 8px; border-radius: 4px; cursor: pointer; font-size: 12px;
+        }
+        .ocr-export-button:hover { background: rgba(52, 152, 219, 0.4); }
+        .ocr-export-button:disabled { opacity: 0.5; cursor: progress; }
+        ::highlight(ocr-search-hit) { background-color: rgba(255, 213, 0, 0.6); }
+        w.ocr-search-hit { background-color: rgba(255, 213, 0, 0.6); }
+
+        .metadata-section {
+            background: #f8f9fa; border-bottom: 1px solid #dee2e6; padding: 12px 20px;
+            display: flex; justify-content: space-between; align-items: center;
+            font-size: 13px; color: #495057; font-family: -apple-system, BlinkMacSystemFont, 'Segoe UI', Roboto, sans-serif;
+        }
+        .metadata-stats { display: flex; align-items: center; gap: 20px; }
+        #ocr-stats { display: flex; gap: 12px; color: #6c757d; }
+        .metadata-timestamps { display: flex; align-items: center; gap: 15px; color: #6c757d; }
+        .metadata-timestamp { font-family: monospace; font-size: 12px; }
+
+        .page-confidence-badge {
+            position: absolute; top: 2px; left: 2px; color: white; padding: 4px 8px; border-radius: 12px;
+            font-size: 11px; font-weight: bold; z-index: 40; box-shadow: 0 2px 4px rgba(0,0,0,0.2);
+        }
+        .page-confidence-badge.high { background: #28a745; }
+        .page-confidence-badge.med { background: #ffc107; }
+        .page-confidence-badge.low { background: #dc3545; }
+        .page-copy-button {
+            position: absolute; top: 10px; right: 10px; background: rgba(0, 0, 0, 0.8); color: white;
+            border: 1px solid rgba(255, 255, 255, 0.3); padding: 5px 10px; border-radius: 4px;
+            cursor: pointer; font-size: 11px; z-index: 40;
+        }
+        .page-copy-button.compact {
+            top: 5px; right: 5px; background: rgba(0, 0, 0, 0.7); border: none;
+            padding: 3px 6px; border-radius: 3px; font-size: 10px; z-index: 30;
+        }
+
+        section.win11OneOcrPage.ocr-contained { content-visibility: auto; }
+        .ocr-page-spacer { contain: strict; }
+
+        .svg-content {
+            position: relative; margin-top: 20px; border-top: 2px solid #ddd; padding: 20px;
+            background: #fafafa; overflow: auto; max-width: 100%;
+        }
+        .svg-content > h3 { margin-top: 0; color: #666; }
+        .svg-content > svg { border: 1px solid #ccc; background: white; width: 100%; height: auto; }
+        .svg-content .line-box { fill: none; stroke: #000000; stroke-width: 0.8; stroke-dasharray: 4,2; }
+        .svg-content .word-box-high { fill: none; stroke: #00aa00; stroke-width: 0.6; stroke-dasharray: 2,1; }
+        .svg-content .word-box-med { fill: none; stroke: #ffaa00; stroke-width: 0.6; stroke-dasharray: 2,1; }
+        .svg-content .word-box-low { fill: none; stroke: #ff0000; stroke-width: 0.6; stroke-dasharray: 2,1; }
+        .svg-content .word-text { font-family: Arial, sans-serif; font-size: 12px; fill: #0066cc; font-weight: bold; }
+        .svg-content .svg-layer { display: block; }
+        .svg-content .svg-layer.hidden { display: none; }
+
+        #loading-indicator {
+            position: fixed; top: 50%; left: 50%; transform: translate(-50%, -50%);
+            background: rgba(0, 0, 0, 0.85); color: white; padding: 20px 24px; border-radius: 8px;
+            z-index: 9999; font-family: -apple-system, BlinkMacSystemFont, 'Segoe UI', Roboto, sans-serif; box-shadow: 0 4px 12px rgba(0, 0, 0, 0.3);
+        }
+        .loading-body { display: flex; align-items: center; gap: 12px; }
+        .loading-ring { transform: rotate(-90deg); }
+        .loading-text { display: flex; flex-direction: column; align-items: flex-start; }
+        .loading-message { font-size: 14px; font-weight: 500; }
+        #progress-text { font-size: 12px; opacity: 0.8; margin-top: 2px; }
+
+        #ocr-overlay-layer { position: absolute; top: 0; left: 0; width: 0; height: 0; z-index: 1000; }
+        #ocr-overlay-layer > .overlay-widget { display: none; }
+        #ocr-overlay-layer > .overlay-widget.visible { display: block; }
+        #floating-controls {
+            position: absolute; top: 0; left: 0; background: rgba(0, 0, 0, 0.9); color: white;
+            padding: 5px 10px; border-radius: 4px; font-size: 11px; z-index: 1000;
+            white-space: nowrap; pointer-events: auto; will-change: transform;
+        }
+        #floating-controls > button {
+            background: none; border: none; color: white; cursor: pointer;
+            font-size: 12px; padding: 2px 4px; border-radius: 2px;
+        }
+        #floating-controls > button:hover { background: rgba(255, 255, 255, 0.2); }
+        #ocr-notification {
+            position: fixed; top: 50%; left: 50%; transform: translate(-50%, -50%);
+            background: rgba(0, 0, 0, 0.8); color: white; padding: 10px 20px; border-radius: 4px;
+            z-index: 1000; font-size: 12px; pointer-events: none;
+        }
+        #ocr-word-details {
+            position: fixed; top: 0; left: 0; background: rgba(0, 0, 0, 0.9); color: white;
+            padding: 10px 15px; border-radius: 5px; font-size: 12px; font-family: monospace;
+            z-index: 1000; max-width: 250px; pointer-events: none; will-change: transform;
+        }
+
+        #ocr-memory-readout {
+            position: fixed; left: 10px; bottom: 10px; background: rgba(0, 0, 0, 0.8); color: white;
+            padding: 6px 10px; border-radius: 4px; font: 11px monospace; z-index: 10001;
+            white-space: pre; pointer-events: none;
+        }
+        #ocr-memory-readout.over-budget { background: rgba(180, 0, 0, 0.85); }
+        """;
+
+    private static boolean installed = false;
+
+    private ViewerStyles() {
+        // Utility class - prevent instantiation
+    }
+
+    /**
+     * Add the stylesheet to the document. Safe to call more than once.
+     */
+    public static void install() {
+        if (installed) return;
+        installed = true;
+        if (adoptStyleSheet(CSS)) return;
+
+        var document = Window.current().getDocument();
+        var style = (HTMLElement) document.createElement("style");
+        style.setId("ocr-viewer-styles");
+        style.setTextContent(CSS);
+        document.getHead().appendChild(style);
+        Log.info("ViewerStyles", "Constructable stylesheets not supported - using a style element");
+    }
+
+    @JSBody(params = {"css"}, script = """
+        if (typeof CSSStyleSheet !== 'function' || !('adoptedStyleSheets' in document)) return false;
+        try {
+            var sheet = new CSSStyleSheet();
+            sheet.replaceSync(css);
+            document.adoptedStyleSheets = document.adoptedStyleSheets.concat([sheet]);
+            return true;
+        } catch (e) {
+            return false;
+        }
+        """)
+    private static native boolean adoptStyleSheet(String css);
+}